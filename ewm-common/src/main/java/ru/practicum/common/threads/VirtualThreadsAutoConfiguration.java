@@ -0,0 +1,22 @@
+package ru.practicum.common.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Подключается в main-service и stats-server через зависимость на ewm-common.
+ */
+@AutoConfiguration
+public class VirtualThreadsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "ewm.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${ewm.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(meterRegistry, thresholdMs);
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.mainservice.category.dto.CategoryDto;
 import ru.practicum.mainservice.category.dto.CategoryDtoOut;
 import ru.practicum.mainservice.category.service.CategoryService;
@@ -32,13 +33,20 @@ public class CategoryController {
     @GetMapping("/categories")
     public Collection<CategoryDtoOut> getCategories(
             @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer offset,
-            @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer limit
+            @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer limit,
+            WebRequest webRequest
     ) {
+        if (categoryService.getAllVersion().isNotModified(webRequest)) {
+            return null;
+        }
         return categoryService.getAll(offset, limit);
     }
 
     @GetMapping("/categories/{id}")
-    public CategoryDtoOut getCategory(@PathVariable @Min(1) Long id) {
+    public CategoryDtoOut getCategory(@PathVariable @Min(1) Long id, WebRequest webRequest) {
+        if (categoryService.getVersion(id).isNotModified(webRequest)) {
+            return null;
+        }
         return categoryService.get(id);
     }
 
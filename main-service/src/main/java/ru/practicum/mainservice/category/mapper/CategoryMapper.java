@@ -13,6 +13,6 @@ public class CategoryMapper {
     }
 
     public static Category fromDto(CategoryDto dto) {
-        return new Category(null, dto.getName());
+        return new Category(null, dto.getName(), null);
     }
 }
@@ -3,7 +3,14 @@ package ru.practicum.mainservice.category.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.mainservice.category.model.Category;
+import ru.practicum.mainservice.common.VersionStamp;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
@@ -12,4 +19,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
 
     Category findByName(String name);
+
+    @Query("SELECT new ru.practicum.mainservice.common.VersionStamp(COUNT(c), MAX(c.updatedAt)) FROM Category c")
+    VersionStamp findVersionStamp();
+
+    @Query("SELECT c.id FROM Category c")
+    Set<Long> findAllIds();
+
+    @Query("SELECT c.updatedAt FROM Category c WHERE c.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package ru.practicum.mainservice.category.service;
 
 import ru.practicum.mainservice.category.dto.CategoryDto;
 import ru.practicum.mainservice.category.dto.CategoryDtoOut;
+import ru.practicum.mainservice.common.ResourceVersion;
 
 import java.util.Collection;
 
@@ -11,6 +12,10 @@ public interface CategoryService {
 
     CategoryDtoOut get(Long id);
 
+    ResourceVersion getAllVersion();
+
+    ResourceVersion getVersion(Long id);
+
     CategoryDtoOut add(CategoryDto categoryDto);
 
     CategoryDtoOut update(Long id, CategoryDto categoryDto);
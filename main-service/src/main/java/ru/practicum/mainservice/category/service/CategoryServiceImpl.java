@@ -1,6 +1,7 @@
 package ru.practicum.mainservice.category.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -11,9 +12,12 @@ import ru.practicum.mainservice.category.dto.CategoryDtoOut;
 import ru.practicum.mainservice.category.mapper.CategoryMapper;
 import ru.practicum.mainservice.category.model.Category;
 import ru.practicum.mainservice.category.repository.CategoryRepository;
+import ru.practicum.mainservice.common.ResourceVersion;
+import ru.practicum.mainservice.config.CacheConfig;
 import ru.practicum.mainservice.event.repository.EventRepository;
 import ru.practicum.mainservice.exception.NotFoundException;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Service
@@ -44,6 +48,18 @@ public class CategoryServiceImpl implements CategoryService {
         return CategoryMapper.toDto(category);
     }
 
+    @Override
+    public ResourceVersion getAllVersion() {
+        return ResourceVersion.of(categoryRepository.findVersionStamp(), "categories");
+    }
+
+    @Override
+    public ResourceVersion getVersion(Long id) {
+        LocalDateTime updatedAt = categoryRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new NotFoundException("Category", id));
+        return ResourceVersion.of(updatedAt, "category", id);
+    }
+
     @Override
     @Transactional
     public CategoryDtoOut add(CategoryDto categoryDto) {
@@ -57,6 +73,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PUBLISHED_EVENTS, allEntries = true)
     public CategoryDtoOut update(Long id, CategoryDto categoryDto) {
 
         Category result = categoryRepository.findByName(categoryDto.getName());
@@ -0,0 +1,29 @@
+package ru.practicum.mainservice.comment.controller;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.mainservice.comment.dto.CommentDto;
+import ru.practicum.mainservice.comment.model.CommentCursor;
+
+import java.util.List;
+
+@UtilityClass
+class CommentPages {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Страница комментариев; если есть продолжение, курсор для параметра {@code cursor}
+     * передаётся в заголовке {@value #NEXT_CURSOR_HEADER}.
+     */
+    static ResponseEntity<List<CommentDto>> toResponse(Slice<CommentDto> page) {
+        if (!page.hasNext()) {
+            return ResponseEntity.ok(page.getContent());
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, CommentCursor.after(page.getContent().getLast()).encode())
+                .body(page.getContent());
+    }
+}
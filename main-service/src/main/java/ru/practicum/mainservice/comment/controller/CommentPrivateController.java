@@ -1,11 +1,13 @@
 package ru.practicum.mainservice.comment.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,7 +23,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.mainservice.comment.dto.CommentCreateDto;
 import ru.practicum.mainservice.comment.dto.CommentDto;
 import ru.practicum.mainservice.comment.dto.CommentUpdateDto;
+import ru.practicum.mainservice.comment.model.CommentCursor;
 import ru.practicum.mainservice.comment.service.CommentService;
+import ru.practicum.mainservice.common.ratelimit.RateLimited;
 
 import java.util.List;
 
@@ -31,10 +35,13 @@ import java.util.List;
 @Validated
 public class CommentPrivateController {
 
+    private static final String COMMENTS_RATE_LIMIT = "comments";
+
     private final CommentService commentService;
 
     @PostMapping("/events/{eventId}/comments")
     @ResponseStatus(HttpStatus.CREATED)
+    @RateLimited(COMMENTS_RATE_LIMIT)
     public CommentDto createComment(@PathVariable @Min(1) Long userId,
                                     @PathVariable @Min(1) Long eventId,
                                     @RequestBody @Valid CommentCreateDto commentCreateDto) {
@@ -42,6 +49,7 @@ public class CommentPrivateController {
     }
 
     @PatchMapping("/comments/{commentId}")
+    @RateLimited(COMMENTS_RATE_LIMIT)
     public CommentDto updateComment(@PathVariable @Min(1) Long userId,
                                     @PathVariable @Min(1) Long commentId,
                                     @RequestBody @Valid CommentUpdateDto commentUpdateDto) {
@@ -56,10 +64,16 @@ public class CommentPrivateController {
     }
 
     @GetMapping("/comments")
-    public List<CommentDto> getUserComments(@PathVariable @Min(1) Long userId,
-                                            @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                            @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+    public ResponseEntity<List<CommentDto>> getUserComments(
+            @PathVariable @Min(1) Long userId,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(CommentPages.MAX_PAGE_SIZE) Integer size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return CommentPages.toResponse(
+                    commentService.getUserComments(userId, CommentCursor.decode(cursor), size));
+        }
         Pageable pageable = PageRequest.of(from / size, size);
-        return commentService.getUserComments(userId, pageable);
+        return CommentPages.toResponse(commentService.getUserComments(userId, pageable));
     }
 }
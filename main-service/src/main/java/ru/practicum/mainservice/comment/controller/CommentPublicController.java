@@ -1,9 +1,11 @@
 package ru.practicum.mainservice.comment.controller;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.mainservice.comment.dto.CommentDto;
+import ru.practicum.mainservice.comment.model.CommentCursor;
 import ru.practicum.mainservice.comment.service.CommentService;
 
 import java.util.List;
@@ -24,14 +27,23 @@ public class CommentPublicController {
 
     private final CommentService commentService;
 
+    /**
+     * Комментарии события от новых к старым. Для глубоких страниц вместо {@code from}
+     * передаётся {@code cursor} из заголовка {@value CommentPages#NEXT_CURSOR_HEADER}.
+     */
     @GetMapping
-    public List<CommentDto> getEventComments(
+    public ResponseEntity<List<CommentDto>> getEventComments(
             @PathVariable @Min(1) Long eventId,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+            @RequestParam(defaultValue = "10") @Min(1) @Max(CommentPages.MAX_PAGE_SIZE) Integer size,
+            @RequestParam(required = false) String cursor) {
 
+        if (cursor != null) {
+            return CommentPages.toResponse(
+                    commentService.getEventComments(eventId, CommentCursor.decode(cursor), size));
+        }
         Pageable pageable = PageRequest.of(from / size, size);
-        return commentService.getEventComments(eventId, pageable);
+        return CommentPages.toResponse(commentService.getEventComments(eventId, pageable));
     }
 
     @GetMapping("/{commentId}")
@@ -21,9 +21,20 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@NamedEntityGraph(name = Comment.WITH_AUTHOR_AND_EVENT, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "event", subgraph = "event")
+}, subgraphs = @NamedSubgraph(name = "event", attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator")
+}))
 public class Comment {
+
+    public static final String WITH_AUTHOR_AND_EVENT = "Comment.withAuthorAndEvent";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,41 @@
+package ru.practicum.mainservice.comment.model;
+
+import ru.practicum.mainservice.comment.dto.CommentDto;
+import ru.practicum.mainservice.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в ленте комментариев, упорядоченной по (created_at DESC, id DESC).
+ * Клиенту отдаётся в непрозрачном виде (base64url).
+ */
+public record CommentCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "_";
+
+    public static CommentCursor after(CommentDto comment) {
+        return new CommentCursor(comment.getCreatedAt(), comment.getId());
+    }
+
+    public static CommentCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidRequestException("Некорректный курсор: " + value);
+            }
+            return new CommentCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Некорректный курсор: " + value);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,19 +1,68 @@
 package ru.practicum.mainservice.comment.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.mainservice.comment.model.Comment;
-import ru.practicum.mainservice.comment.model.CommentStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    Page<Comment> findByEventIdAndStatusInOrderByCreatedAtDesc(Long eventId, List<CommentStatus> statuses, Pageable pageable);
+    /**
+     * Первая страница комментариев события в порядке (createdAt, id) по убыванию, без удалённых.
+     * Статус задан литералом, а не параметром: иначе в generic-плане Postgres не может
+     * сопоставить условие с частичным индексом idx_comments_event_active_created_id.
+     */
+    @EntityGraph(Comment.WITH_AUTHOR_AND_EVENT)
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE c.event.id = :eventId
+            AND c.status <> ru.practicum.mainservice.comment.model.CommentStatus.DELETED
+            ORDER BY c.createdAt DESC, c.id DESC""")
+    Slice<Comment> findEventPage(@Param("eventId") Long eventId, Pageable pageable);
+
+    @EntityGraph(Comment.WITH_AUTHOR_AND_EVENT)
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE c.user.id = :userId
+            AND c.status <> ru.practicum.mainservice.comment.model.CommentStatus.DELETED
+            ORDER BY c.createdAt DESC, c.id DESC""")
+    Slice<Comment> findUserPage(@Param("userId") Long userId, Pageable pageable);
 
-    Page<Comment> findByUserIdAndStatusNotOrderByCreatedAtDesc(Long userId, CommentStatus status, Pageable pageable);
+    /**
+     * Keyset-страница комментариев события: строго после курсора (createdAt, id) в порядке убывания.
+     * Сравнение кортежей ложится на ключ индекса (event_id, created_at DESC, id DESC).
+     */
+    @EntityGraph(Comment.WITH_AUTHOR_AND_EVENT)
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE c.event.id = :eventId
+            AND c.status <> ru.practicum.mainservice.comment.model.CommentStatus.DELETED
+            AND (c.createdAt, c.id) < (:createdAt, :id)
+            ORDER BY c.createdAt DESC, c.id DESC""")
+    List<Comment> findEventPageAfter(@Param("eventId") Long eventId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    @EntityGraph(Comment.WITH_AUTHOR_AND_EVENT)
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE c.user.id = :userId
+            AND c.status <> ru.practicum.mainservice.comment.model.CommentStatus.DELETED
+            AND (c.createdAt, c.id) < (:createdAt, :id)
+            ORDER BY c.createdAt DESC, c.id DESC""")
+    List<Comment> findUserPageAfter(@Param("userId") Long userId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Limit limit);
 
     @Query("""
             SELECT c FROM Comment c WHERE
@@ -26,4 +75,4 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
             List<Long> userIds,
             Pageable pageable);
 
-}
\ No newline at end of file
+}
@@ -3,7 +3,9 @@ package ru.practicum.mainservice.comment.service;
 import ru.practicum.mainservice.comment.dto.CommentCreateDto;
 import ru.practicum.mainservice.comment.dto.CommentDto;
 import ru.practicum.mainservice.comment.dto.CommentUpdateDto;
+import ru.practicum.mainservice.comment.model.CommentCursor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -19,9 +21,13 @@ public interface CommentService {
 
     CommentDto getComment(Long commentId);
 
-    List<CommentDto> getEventComments(Long eventId, Pageable pageable);
+    Slice<CommentDto> getEventComments(Long eventId, Pageable pageable);
 
-    List<CommentDto> getUserComments(Long userId, Pageable pageable);
+    Slice<CommentDto> getEventComments(Long eventId, CommentCursor after, int size);
+
+    Slice<CommentDto> getUserComments(Long userId, Pageable pageable);
+
+    Slice<CommentDto> getUserComments(Long userId, CommentCursor after, int size);
 
     List<CommentDto> getCommentsAdmin(List<Long> events, List<Long> users, Pageable pageable);
 }
@@ -2,7 +2,10 @@ package ru.practicum.mainservice.comment.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.mainservice.comment.dto.CommentCreateDto;
@@ -10,6 +13,7 @@ import ru.practicum.mainservice.comment.dto.CommentDto;
 import ru.practicum.mainservice.comment.dto.CommentUpdateDto;
 import ru.practicum.mainservice.comment.mapper.CommentMapper;
 import ru.practicum.mainservice.comment.model.Comment;
+import ru.practicum.mainservice.comment.model.CommentCursor;
 import ru.practicum.mainservice.comment.model.CommentStatus;
 import ru.practicum.mainservice.comment.repository.CommentRepository;
 import ru.practicum.mainservice.event.model.Event;
@@ -127,36 +131,39 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public List<CommentDto> getEventComments(Long eventId, Pageable pageable) {
+    public Slice<CommentDto> getEventComments(Long eventId, Pageable pageable) {
         log.info("Получение комментариев события {}", eventId);
+        checkEventExists(eventId);
 
-        if (!eventRepository.existsById(eventId)) {
-            throw new NotFoundException("Event", eventId);
-        }
+        return commentRepository.findEventPage(eventId, pageable)
+                .map(CommentMapper::toDto);
+    }
 
-        List<CommentStatus> activeStatuses = List.of(CommentStatus.PUBLISHED, CommentStatus.EDITED);
-        return commentRepository
-                .findByEventIdAndStatusInOrderByCreatedAtDesc(eventId, activeStatuses, pageable)
-                .getContent()
-                .stream()
-                .map(CommentMapper::toDto)
-                .toList();
+    @Override
+    public Slice<CommentDto> getEventComments(Long eventId, CommentCursor after, int size) {
+        log.info("Получение комментариев события {} после {}", eventId, after);
+        checkEventExists(eventId);
+
+        return toSlice(commentRepository.findEventPageAfter(eventId,
+                after.createdAt(), after.id(), Limit.of(size + 1)), size);
     }
 
     @Override
-    public List<CommentDto> getUserComments(Long userId, Pageable pageable) {
+    public Slice<CommentDto> getUserComments(Long userId, Pageable pageable) {
         log.info("Получение комментариев пользователя {}", userId);
+        checkUserExists(userId);
 
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("User", userId);
-        }
+        return commentRepository.findUserPage(userId, pageable)
+                .map(CommentMapper::toDto);
+    }
 
-        return commentRepository
-                .findByUserIdAndStatusNotOrderByCreatedAtDesc(userId, CommentStatus.DELETED, pageable)
-                .getContent()
-                .stream()
-                .map(CommentMapper::toDto)
-                .toList();
+    @Override
+    public Slice<CommentDto> getUserComments(Long userId, CommentCursor after, int size) {
+        log.info("Получение комментариев пользователя {} после {}", userId, after);
+        checkUserExists(userId);
+
+        return toSlice(commentRepository.findUserPageAfter(userId,
+                after.createdAt(), after.id(), Limit.of(size + 1)), size);
     }
 
     @Override
@@ -170,4 +177,28 @@ public class CommentServiceImpl implements CommentService {
                 .map(CommentMapper::toDto)
                 .toList();
     }
+
+    private void checkEventExists(Long eventId) {
+        if (!eventRepository.existsById(eventId)) {
+            throw new NotFoundException("Event", eventId);
+        }
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User", userId);
+        }
+    }
+
+    /**
+     * Запрошено на одну строку больше страницы: её наличие означает, что есть продолжение.
+     */
+    private static Slice<CommentDto> toSlice(List<Comment> comments, int size) {
+        boolean hasNext = comments.size() > size;
+        List<CommentDto> content = comments.stream()
+                .limit(size)
+                .map(CommentMapper::toDto)
+                .toList();
+        return new SliceImpl<>(content, Pageable.ofSize(size), hasNext);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package ru.practicum.mainservice.common;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Валидаторы условного GET для ресурса: слабый ETag и Last-Modified.
+ * Строятся по меткам {@code updated_at}, поэтому проверяются до сборки DTO
+ * и загрузки статистики. Счётчики просмотров и заявок в версию не входят.
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    public static ResourceVersion of(LocalDateTime lastModified, Object... parts) {
+        Instant modified = lastModified == null
+                ? Instant.EPOCH
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant();
+        String source = Arrays.toString(parts) + "@" + modified.toEpochMilli();
+        String hash = DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+        return new ResourceVersion("W/\"" + hash + "\"", modified);
+    }
+
+    public static ResourceVersion of(VersionStamp stamp, Object... parts) {
+        Object[] withCount = Arrays.copyOf(parts, parts.length + 1);
+        withCount[parts.length] = stamp.count();
+        return of(stamp.lastModified(), withCount);
+    }
+
+    /**
+     * Сверяет валидаторы с If-None-Match / If-Modified-Since запроса. Если ресурс не изменился,
+     * ответ уже помечен как 304 и обработчику остаётся вернуть {@code null}; иначе в ответ
+     * добавлены заголовки ETag и Last-Modified.
+     */
+    public boolean isNotModified(WebRequest request) {
+        return request.checkNotModified(etag, lastModified.toEpochMilli());
+    }
+}
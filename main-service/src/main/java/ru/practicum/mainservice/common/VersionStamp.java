@@ -0,0 +1,10 @@
+package ru.practicum.mainservice.common;
+
+import java.time.LocalDateTime;
+
+/**
+ * Число строк в выборке и наибольшая метка {@code updated_at} среди них:
+ * меняется при добавлении, удалении и изменении любой строки.
+ */
+public record VersionStamp(Long count, LocalDateTime lastModified) {
+}
@@ -0,0 +1,52 @@
+package ru.practicum.mainservice.common.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.mainservice.common.ClientIpResolver;
+import ru.practicum.mainservice.exception.TooManyRequestsException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) {
+            return true;
+        }
+        RateLimitProperties.Limit limit = properties.limits().get(rateLimited.value());
+        if (limit == null) {
+            return true;
+        }
+        String clientIp = ClientIpResolver.resolve(request);
+        String userId = getUserId(request);
+        long waitNanos = userId == null
+                ? rateLimiter.tryAcquire(rateLimited.value(), limit, "ip", clientIp)
+                : rateLimiter.tryAcquire(rateLimited.value(), limit, "ip", clientIp, "user", userId);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Слишком много запросов, повторите позже.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String getUserId(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables == null ? null : variables.get("userId");
+    }
+}
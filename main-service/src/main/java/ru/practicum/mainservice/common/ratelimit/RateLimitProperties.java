@@ -0,0 +1,15 @@
+package ru.practicum.mainservice.common.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * @param limits лимиты по имени из {@link RateLimited}: средняя частота в секунду и допустимый всплеск
+ */
+@ConfigurationProperties(prefix = "ewm.rate-limit")
+public record RateLimitProperties(Map<String, Limit> limits) {
+
+    public record Limit(double perSecond, int burst) {
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.mainservice.common.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Ограничивает частоту вызовов метода контроллера по пользователю ({@code userId} из пути)
+ * и по IP клиента. Параметры лимита задаются в {@code ewm.rate-limit.limits.<value>}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    String value();
+}
@@ -0,0 +1,142 @@
+package ru.practicum.mainservice.common.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket в форме GCRA: на каждый ключ хранится одно число — теоретическое время прибытия
+ * следующего запроса (TAT), которое сдвигается через CAS без блокировок. Запрос проходит,
+ * если после сдвига TAT опережает текущее время не больше чем на {@code burst} интервалов.
+ */
+public class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String ALLOWED_METRIC = "ewm.rate-limit.allowed";
+    private static final String REJECTED_METRIC = "ewm.rate-limit.rejected";
+    /**
+     * Значение TAT ведра, удалённого очисткой: поток, уже получивший это ведро из map,
+     * не сможет его сдвинуть и возьмёт новое.
+     */
+    static final long EVICTED = Long.MIN_VALUE;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        Gauge.builder("ewm.rate-limit.buckets", buckets, Map::size)
+                .description("Число отслеживаемых ключей ограничителя частоты")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запрос должен пройти во всех ведрах сразу: сначала проверяются все, и только если ни одно
+     * не отказало, TAT сдвигаются. Отклонённый запрос не расходует квоту ни в одном ведре.
+     *
+     * @param keys пары «тип ключа, значение» ({@code "ip", "10.0.0.1", "user", "42"})
+     * @return 0, если запрос разрешён, иначе сколько наносекунд подождать до следующей попытки
+     */
+    public long tryAcquire(String name, RateLimitProperties.Limit limit, String... keys) {
+        long interval = (long) (NANOS_PER_SECOND / limit.perSecond());
+        long tolerance = interval * limit.burst();
+        int count = keys.length / 2;
+        String[] bucketKeys = new String[count];
+        AtomicLong[] tats = new AtomicLong[count];
+        for (int i = 0; i < count; i++) {
+            bucketKeys[i] = name + ':' + keys[2 * i] + ':' + keys[2 * i + 1];
+            tats[i] = bucket(bucketKeys[i]);
+        }
+        long[] current = new long[count];
+        long[] next = new long[count];
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long wait = 0;
+            int rejectedBy = -1;
+            for (int i = 0; i < count; i++) {
+                current[i] = tats[i].get();
+                if (current[i] == EVICTED) {
+                    tats[i] = bucket(bucketKeys[i]);
+                    current[i] = tats[i].get();
+                }
+                next[i] = Math.max(current[i], now) + interval;
+                long excess = next[i] - now - tolerance;
+                if (excess > wait) {
+                    wait = excess;
+                    rejectedBy = i;
+                }
+            }
+            if (rejectedBy >= 0) {
+                counter(REJECTED_METRIC, name, keys[2 * rejectedBy]).increment();
+                return wait;
+            }
+            if (commit(tats, current, next)) {
+                for (int i = 0; i < count; i++) {
+                    counter(ALLOWED_METRIC, name, keys[2 * i]).increment();
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Новое ведро полно: TAT = сейчас; начало отсчёта nanoTime произвольно и может быть отрицательным.
+     */
+    private AtomicLong bucket(String key) {
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(nanoClock.getAsLong()));
+    }
+
+    /**
+     * Сдвигает TAT всех ведер; если какое-то изменилось после проверки (в том числе удалено очисткой),
+     * уже сдвинутые возвращаются назад и проверка повторяется.
+     */
+    static boolean commit(AtomicLong[] tats, long[] current, long[] next) {
+        for (int i = 0; i < tats.length; i++) {
+            if (!tats[i].compareAndSet(current[i], next[i])) {
+                for (int j = 0; j < i; j++) {
+                    long delta = next[j] - current[j];
+                    tats[j].getAndUpdate(tat -> tat == EVICTED ? tat : tat - delta);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ключи, чей TAT уже в прошлом, эквивалентны полному ведру и удаляются. Удаление идёт под блокировкой
+     * ключа в map и только если CAS в {@link #EVICTED} удался: сдвиг TAT, успевший раньше, ведро сохраняет,
+     * а опоздавший сдвиг не пройдёт и повторится на новом ведре, поэтому расход квоты не теряется.
+     */
+    @Scheduled(fixedDelayString = "${ewm.rate-limit.cleanup-ms}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        for (String key : buckets.keySet()) {
+            buckets.computeIfPresent(key, (k, tat) -> {
+                long value = tat.get();
+                return value < now && tat.compareAndSet(value, EVICTED) ? null : tat;
+            });
+        }
+    }
+
+    private Counter counter(String metric, String limit, String keyType) {
+        return counters.computeIfAbsent(metric + ':' + limit + ':' + keyType, k -> Counter.builder(metric)
+                .tag("limit", limit)
+                .tag("key", keyType)
+                .register(meterRegistry));
+    }
+}
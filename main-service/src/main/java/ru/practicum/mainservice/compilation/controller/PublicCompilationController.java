@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.mainservice.compilation.dto.CompilationDto;
 import ru.practicum.mainservice.compilation.service.CompilationService;
 
@@ -22,12 +23,19 @@ public class PublicCompilationController {
     public List<CompilationDto> getCompilations(
             @RequestParam(required = false) Boolean pinned,
             @RequestParam(defaultValue = "0") @Min(0) int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            WebRequest webRequest) {
+        if (compilationService.getCompilationsVersion(pinned).isNotModified(webRequest)) {
+            return null;
+        }
         return compilationService.getCompilations(pinned, from, size);
     }
 
     @GetMapping("/{compId}")
-    public CompilationDto getCompilation(@PathVariable Long compId) {
+    public CompilationDto getCompilation(@PathVariable Long compId, WebRequest webRequest) {
+        if (compilationService.getCompilationVersion(compId).isNotModified(webRequest)) {
+            return null;
+        }
         return compilationService.getCompilationById(compId);
     }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package ru.practicum.mainservice.compilation.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.mainservice.common.VersionStamp;
 import ru.practicum.mainservice.compilation.model.Compilation;
 
 import java.util.List;
@@ -10,4 +13,30 @@ public interface CompilationRepository extends JpaRepository<Compilation, Long>
     List<Compilation> findByPinned(Boolean pinned, Pageable pageable);
 
     boolean existsByTitle(String title);
+
+    /**
+     * Версия подборок вместе с входящими в них событиями и их категориями:
+     * DTO подборки включает краткие данные событий.
+     */
+    @Query("""
+            SELECT new ru.practicum.mainservice.common.VersionStamp(
+                COUNT(DISTINCT comp.id),
+                GREATEST(MAX(comp.updatedAt), MAX(e.updatedAt), MAX(c.updatedAt)))
+            FROM Compilation comp
+            LEFT JOIN comp.events e
+            LEFT JOIN e.category c
+            WHERE (:pinned IS NULL OR comp.pinned = :pinned)
+            """)
+    VersionStamp findVersionStamp(@Param("pinned") Boolean pinned);
+
+    @Query("""
+            SELECT new ru.practicum.mainservice.common.VersionStamp(
+                COUNT(DISTINCT comp.id),
+                GREATEST(MAX(comp.updatedAt), MAX(e.updatedAt), MAX(c.updatedAt)))
+            FROM Compilation comp
+            LEFT JOIN comp.events e
+            LEFT JOIN e.category c
+            WHERE comp.id = :id
+            """)
+    VersionStamp findVersionStampById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ru.practicum.mainservice.compilation.service;
 import ru.practicum.mainservice.compilation.dto.CompilationDto;
 import ru.practicum.mainservice.compilation.dto.NewCompilationDto;
 import ru.practicum.mainservice.compilation.dto.UpdateCompilationRequest;
+import ru.practicum.mainservice.common.ResourceVersion;
 
 import java.util.List;
 
@@ -11,6 +12,10 @@ public interface CompilationService {
 
     List<CompilationDto> getCompilations(Boolean pinned, int from, int size);
 
+    ResourceVersion getCompilationVersion(Long compId);
+
+    ResourceVersion getCompilationsVersion(Boolean pinned);
+
     void deleteCompilation(Long compId);
 
     CompilationDto createCompilation(NewCompilationDto newCompilationDto);
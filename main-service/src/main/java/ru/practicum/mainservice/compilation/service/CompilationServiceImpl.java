@@ -3,6 +3,7 @@ package ru.practicum.mainservice.compilation.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.mainservice.compilation.dto.CompilationDto;
@@ -11,11 +12,14 @@ import ru.practicum.mainservice.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.mainservice.compilation.mapper.CompilationMapper;
 import ru.practicum.mainservice.compilation.model.Compilation;
 import ru.practicum.mainservice.compilation.repository.CompilationRepository;
+import ru.practicum.mainservice.common.ResourceVersion;
+import ru.practicum.mainservice.common.VersionStamp;
 import ru.practicum.mainservice.event.model.Event;
 import ru.practicum.mainservice.event.repository.EventRepository;
 import ru.practicum.mainservice.exception.ConditionNotMetException;
 import ru.practicum.mainservice.exception.NotFoundException;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -30,7 +34,7 @@ public class CompilationServiceImpl implements CompilationService {
 
     @Override
     public List<CompilationDto> getCompilations(Boolean pinned, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = PageRequest.of(from / size, size, Sort.by("id"));
 
         List<Compilation> compilations = (pinned != null)
                 ? compilationRepository.findByPinned(pinned, pageable)
@@ -48,6 +52,20 @@ public class CompilationServiceImpl implements CompilationService {
         return CompilationMapper.toDto(compilation);
     }
 
+    @Override
+    public ResourceVersion getCompilationVersion(Long compId) {
+        VersionStamp stamp = compilationRepository.findVersionStampById(compId);
+        if (stamp.count() == 0) {
+            throw new NotFoundException("Compilation", compId);
+        }
+        return ResourceVersion.of(stamp, "compilation", compId);
+    }
+
+    @Override
+    public ResourceVersion getCompilationsVersion(Boolean pinned) {
+        return ResourceVersion.of(compilationRepository.findVersionStamp(pinned), "compilations", pinned);
+    }
+
     @Transactional
     public CompilationDto createCompilation(NewCompilationDto newCompilationDto) {
         if (compilationRepository.existsByTitle(newCompilationDto.getTitle())) {
@@ -92,6 +110,8 @@ public class CompilationServiceImpl implements CompilationService {
             Set<Event> events = new HashSet<>(eventRepository.findAllById(dto.getEvents()));
             compilation.setEvents(events);
         }
+        // изменение только состава подборки не делает сущность «грязной» для @UpdateTimestamp
+        compilation.setUpdatedAt(LocalDateTime.now());
         return CompilationMapper.toDto(compilation);
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package ru.practicum.mainservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+
+    public static final String EVENT_COUNTS = "eventCounts";
+    public static final String PUBLISHED_EVENTS = "publishedEvents";
+    public static final String EVENT_FACETS = "eventFacets";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${ewm.cache.event-counts.spec}") String eventCountsSpec,
+                                     @Value("${ewm.cache.published-events.spec}") String publishedEventsSpec,
+                                     @Value("${ewm.cache.event-facets.spec}") String eventFacetsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(EVENT_COUNTS, Caffeine.from(eventCountsSpec).build());
+        cacheManager.registerCustomCache(PUBLISHED_EVENTS, Caffeine.from(publishedEventsSpec).build());
+        cacheManager.registerCustomCache(EVENT_FACETS, Caffeine.from(eventFacetsSpec).build());
+        // записи и инвалидации применяются только после коммита транзакции
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.mainservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+@Configuration
+public class EnrichmentConfig {
+
+    /**
+     * Исполнитель для запросов к сервису статистики при обогащении событий: задача
+     * блокируется на HTTP, поэтому по виртуальному потоку на задачу.
+     */
+    @Bean(destroyMethod = "close")
+    public EnrichmentExecutor enrichmentExecutor() {
+        return new EnrichmentExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Обёртка не реализует {@link java.util.concurrent.Executor}: бин такого типа отключил бы
+     * автоконфигурацию applicationTaskExecutor, которой пользуются {@code @Async} и планировщик.
+     */
+    public static final class EnrichmentExecutor implements AutoCloseable {
+
+        private final ExecutorService delegate;
+
+        private EnrichmentExecutor(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+            return CompletableFuture.supplyAsync(task, delegate);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.mainservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.mainservice.common.ratelimit.RateLimitInterceptor;
+import ru.practicum.mainservice.common.ratelimit.RateLimitProperties;
+import ru.practicum.mainservice.common.ratelimit.RateLimiter;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ewm.rate-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final RateLimitProperties properties;
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter(), properties));
+    }
+}
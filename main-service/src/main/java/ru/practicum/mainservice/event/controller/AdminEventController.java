@@ -14,7 +14,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.mainservice.event.dto.EventBulkModerationDto;
 import ru.practicum.mainservice.event.dto.EventDtoOut;
+import ru.practicum.mainservice.event.dto.EventModerationResultDto;
 import ru.practicum.mainservice.event.dto.EventUpdateAdminDto;
 import ru.practicum.mainservice.event.model.EventAdminFilter;
 import ru.practicum.mainservice.event.model.EventState;
@@ -65,4 +67,11 @@ public class AdminEventController {
         log.info("request from Admin: update event:{}", eventId);
         return eventService.update(eventId, eventDto);
     }
+
+    @PatchMapping("/moderation")
+    public List<EventModerationResultDto> moderateEvents(@RequestBody @Valid EventBulkModerationDto moderationDto) {
+        log.info("request from Admin: {} for {} events",
+                moderationDto.getStateAction(), moderationDto.getEventIds().size());
+        return eventService.moderate(moderationDto);
+    }
 }
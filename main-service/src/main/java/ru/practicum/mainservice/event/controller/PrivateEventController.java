@@ -1,10 +1,13 @@
 package ru.practicum.mainservice.event.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,8 +23,11 @@ import ru.practicum.mainservice.event.dto.EventCreateDto;
 import ru.practicum.mainservice.event.dto.EventDtoOut;
 import ru.practicum.mainservice.event.dto.EventShortDtoOut;
 import ru.practicum.mainservice.event.dto.EventUpdateDto;
+import ru.practicum.mainservice.event.service.EventImportService;
 import ru.practicum.mainservice.event.service.EventService;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 
 @Slf4j
@@ -32,6 +38,7 @@ import java.util.Collection;
 public class PrivateEventController {
 
     private final EventService eventService;
+    private final EventImportService eventImportService;
 
     @GetMapping("/{userId}/events")
     public Collection<EventShortDtoOut> getEventsCreatedByUser(
@@ -52,6 +59,24 @@ public class PrivateEventController {
         return eventService.add(userId, eventDto);
     }
 
+    /**
+     * Импорт событий из NDJSON (одно {@link EventCreateDto} на строку). Ответ тоже NDJSON:
+     * по строке результата на каждую непустую строку входа, выдаётся по мере обработки.
+     */
+    @PostMapping(path = "/{userId}/events/import",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importEvents(@PathVariable @Min(1) Long userId,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        log.info("запрос : импорт событий пользователя: {}", userId);
+        eventImportService.checkUser(userId);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        eventImportService.importEvents(userId, request.getInputStream(), response.getOutputStream());
+    }
+
     @PatchMapping("/{userId}/events/{eventId}")
     public EventDtoOut updateEvent(
             @PathVariable @Min(1) Long userId,
@@ -2,10 +2,12 @@ package ru.practicum.mainservice.event.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,8 +15,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.EndpointHitDTO;
+import ru.practicum.mainservice.common.ClientIpResolver;
+import ru.practicum.mainservice.common.ResourceVersion;
 import ru.practicum.mainservice.event.dto.EventDtoOut;
+import ru.practicum.mainservice.event.dto.EventFacetsDto;
 import ru.practicum.mainservice.event.dto.EventShortDtoOut;
 import ru.practicum.mainservice.event.model.EventFilter;
 import ru.practicum.mainservice.event.model.EventState;
@@ -41,9 +47,12 @@ public class PublicEventController {
     private final EventService eventService;
     private final StatsClient statsClient;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final double MAX_RADIUS_KM = 1000;
+    private static final int MAX_BATCH_SIZE = 100;
 
     @GetMapping
-    public Collection<EventShortDtoOut> getEvents(
+    public ResponseEntity<Collection<EventShortDtoOut>> getEvents(
             @Size(min = 3, max = 1000, message = "Текст должен быть длиной от 3 до 1000 символов")
             @RequestParam(required = false) String text,
             @RequestParam(required = false) List<Long> categories,
@@ -51,32 +60,30 @@ public class PublicEventController {
             @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeStart,
             @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeEnd,
             @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLon,
             @RequestParam(defaultValue = "EVENT_DATE") String sort,
             @RequestParam(defaultValue = "0") Integer from,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean withTotal,
             HttpServletRequest request) {
 
-        EventFilter filter = EventFilter.builder()
-                .text(text)
-                .categories(categories)
-                .paid(paid)
-                .rangeStart(rangeStart)
-                .rangeEnd(rangeEnd)
-                .onlyAvailable(onlyAvailable)
+        EventFilter filter = searchFilter(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
+                lat, lon, radius, minLat, maxLat, minLon, maxLon)
                 .sort(sort)
                 .from(from)
                 .size(size)
-                .state(EventState.PUBLISHED)
                 .build();
 
-        if (filter.getRangeStart() != null && filter.getRangeEnd() != null) {
-            if (filter.getRangeStart().isAfter(filter.getRangeEnd())) {
-                throw new InvalidRequestException("Дата начала должна быть раньше даты конца");
-            }
-        }
+        validateFilter(filter);
 
         Collection<EventShortDtoOut> events = eventService.findShortEventsBy(filter);
-        String clientIp = getClientIp(request);
+        String clientIp = ClientIpResolver.resolve(request);
         String timestamp = LocalDateTime.now().format(FORMATTER);
 
         List<EndpointHitDTO> hits = events.stream()
@@ -97,16 +104,50 @@ public class PublicEventController {
 
         saveHitsBatch(hits);
 
+        if (!withTotal) {
+            return ResponseEntity.ok(events);
+        }
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(eventService.countShortEventsBy(filter)))
+                .body(events);
+    }
+
+    @GetMapping("/batch")
+    public List<EventDtoOut> getBatch(
+            @NotEmpty @Size(max = MAX_BATCH_SIZE, message = "Можно запросить не более 100 событий")
+            @RequestParam List<Long> ids,
+            HttpServletRequest request) {
+        log.debug("запрос опубликованных событий по списку идентификаторов: {}", ids);
+        List<EventDtoOut> events = eventService.findPublished(ids);
+
+        String clientIp = ClientIpResolver.resolve(request);
+        String timestamp = LocalDateTime.now().format(FORMATTER);
+        saveHitsBatch(events.stream()
+                .map(event -> EndpointHitDTO.builder()
+                        .app("events")
+                        .uri("/events/" + event.getId())
+                        .ip(clientIp)
+                        .timestamp(timestamp)
+                        .build())
+                .toList());
+
         return events;
     }
 
+    /**
+     * Событие с условным GET. Версия строится только по данным события и категории,
+     * поэтому при 304 клиент остаётся со своими (возможно, устаревшими) views и confirmedRequests.
+     * Просмотр засчитывается после загрузки события, как и раньше, и при ответе 304 тоже.
+     */
     @GetMapping("/{eventId}")
     public EventDtoOut get(@PathVariable @Min(1) Long eventId,
-                           HttpServletRequest request) {
+                           HttpServletRequest request,
+                           WebRequest webRequest) {
         log.debug("запрос на публикацию идентификатора события:{}", eventId);
-        EventDtoOut dtoOut = eventService.findPublished(eventId);
+        ResourceVersion version = eventService.findPublishedVersion(eventId);
+        EventDtoOut event = version.isNotModified(webRequest) ? null : eventService.findPublished(eventId);
 
-        String clientIp = getClientIp(request);
+        String clientIp = ClientIpResolver.resolve(request);
         String timestamp = LocalDateTime.now().format(FORMATTER);
 
         EndpointHitDTO endpointHitDto = EndpointHitDTO.builder()
@@ -117,8 +158,7 @@ public class PublicEventController {
                 .build();
 
         statsClient.saveHit(endpointHitDto);
-
-        return dtoOut;
+        return event;
     }
 
     private void saveHitsBatch(List<EndpointHitDTO> hits) {
@@ -139,18 +179,100 @@ public class PublicEventController {
         }
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
+    /**
+     * Фасеты для тех же параметров поиска, что и у {@code GET /events}: число опубликованных
+     * событий по категориям, платности и месяцам проведения.
+     */
+    @GetMapping("/facets")
+    public EventFacetsDto getFacets(
+            @Size(min = 3, max = 1000, message = "Текст должен быть длиной от 3 до 1000 символов")
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) List<Long> categories,
+            @RequestParam(required = false) Boolean paid,
+            @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeStart,
+            @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeEnd,
+            @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLon) {
+        EventFilter filter = searchFilter(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
+                lat, lon, radius, minLat, maxLat, minLon, maxLon)
+                .build();
+        validateFilter(filter);
+        return eventService.findFacets(filter);
+    }
+
+    private static EventFilter.EventFilterBuilder searchFilter(String text, List<Long> categories, Boolean paid,
+                                                               LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                               Boolean onlyAvailable, Double lat, Double lon,
+                                                               Double radius, Double minLat, Double maxLat,
+                                                               Double minLon, Double maxLon) {
+        return EventFilter.builder()
+                .text(text)
+                .categories(categories)
+                .paid(paid)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .onlyAvailable(onlyAvailable)
+                .lat(lat)
+                .lon(lon)
+                .radius(radius)
+                .minLat(minLat)
+                .maxLat(maxLat)
+                .minLon(minLon)
+                .maxLon(maxLon)
+                .state(EventState.PUBLISHED);
+    }
+
+    private void validateFilter(EventFilter filter) {
+        if (filter.getRangeStart() != null && filter.getRangeEnd() != null) {
+            if (filter.getRangeStart().isAfter(filter.getRangeEnd())) {
+                throw new InvalidRequestException("Дата начала должна быть раньше даты конца");
+            }
+        }
+        validateGeoFilter(filter);
+    }
+
+    private void validateGeoFilter(EventFilter filter) {
+        if ((filter.getLat() == null) != (filter.getLon() == null)) {
+            throw new InvalidRequestException("Параметры lat и lon задаются вместе");
+        }
+        if (filter.getLat() != null) {
+            validateCoordinates(filter.getLat(), filter.getLon());
+        }
+        if (filter.getRadius() != null) {
+            if (filter.getLat() == null) {
+                throw new InvalidRequestException("Для поиска в радиусе нужны lat и lon");
+            }
+            if (filter.getRadius() <= 0 || filter.getRadius() > MAX_RADIUS_KM) {
+                throw new InvalidRequestException("Радиус должен быть больше 0 и не больше " + MAX_RADIUS_KM + " км");
+            }
         }
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
+        boolean anyBoxBound = filter.getMinLat() != null || filter.getMaxLat() != null
+                || filter.getMinLon() != null || filter.getMaxLon() != null;
+        if (anyBoxBound) {
+            if (filter.getBox() == null) {
+                throw new InvalidRequestException("Прямоугольник задаётся всеми параметрами minLat, maxLat, minLon, maxLon");
+            }
+            validateCoordinates(filter.getMinLat(), filter.getMinLon());
+            validateCoordinates(filter.getMaxLat(), filter.getMaxLon());
+            if (filter.getMinLat() > filter.getMaxLat()) {
+                throw new InvalidRequestException("minLat должен быть не больше maxLat");
+            }
         }
-        if (ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
+        if (filter.isDistanceSort() && filter.getLat() == null) {
+            throw new InvalidRequestException("Для сортировки DISTANCE нужны lat и lon");
+        }
+    }
+
+    private void validateCoordinates(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new InvalidRequestException("Широта должна быть в диапазоне [-90, 90], долгота в [-180, 180]");
         }
-        return ip;
     }
 }
 
@@ -0,0 +1,23 @@
+package ru.practicum.mainservice.event.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+public class EventBulkModerationDto {
+
+    @NotEmpty(message = "Список событий не должен быть пустым")
+    @Size(max = 10000, message = "За один запрос можно модерировать не более 10000 событий")
+    private List<@NotNull Long> eventIds;
+
+    @NotNull(message = "Действие модерации обязательно")
+    private EventUpdateAdminDto.StateAction stateAction;
+}
@@ -18,7 +18,7 @@ import static ru.practicum.mainservice.constants.Constants.DATE_TIME_FORMAT;
 
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
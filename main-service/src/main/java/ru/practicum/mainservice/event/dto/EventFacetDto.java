@@ -0,0 +1,19 @@
+package ru.practicum.mainservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventFacetDto {
+
+    private String value;
+    private String name;
+    private Long count;
+}
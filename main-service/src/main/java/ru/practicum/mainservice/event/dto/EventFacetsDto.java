@@ -0,0 +1,22 @@
+package ru.practicum.mainservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventFacetsDto {
+
+    private Long total;
+    private List<EventFacetDto> categories;
+    private List<EventFacetDto> paid;
+    private List<EventFacetDto> months;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.mainservice.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Результат импорта одной строки NDJSON: id созданного события или причина отказа.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventImportResultDto {
+
+    private Long line;
+    private Boolean created;
+    private Long eventId;
+    private String error;
+}
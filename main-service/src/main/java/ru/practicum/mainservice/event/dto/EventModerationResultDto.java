@@ -0,0 +1,21 @@
+package ru.practicum.mainservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.mainservice.event.model.EventState;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventModerationResultDto {
+
+    private Long eventId;
+    private Boolean applied;
+    private EventState state;
+    private String reason;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.mainservice.event.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -33,6 +34,15 @@ public class EventShortDtoOut {
     private Boolean paid;
     private Integer confirmedRequests;
 
+    /**
+     * Заполняются только в списке событий инициатора.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long pendingRequests;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long rejectedRequests;
+
     @Builder.Default
     private Long views = 0L;
 }
\ No newline at end of file
@@ -1,12 +1,15 @@
 package ru.practicum.mainservice.event.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.mainservice.category.dto.CategoryDtoOut;
 import ru.practicum.mainservice.category.mapper.CategoryMapper;
 import ru.practicum.mainservice.event.dto.EventCreateDto;
 import ru.practicum.mainservice.event.dto.EventDtoOut;
 import ru.practicum.mainservice.event.dto.EventShortDtoOut;
 import ru.practicum.mainservice.event.dto.LocationDto;
 import ru.practicum.mainservice.event.model.Event;
+import ru.practicum.mainservice.event.model.EventShortView;
+import ru.practicum.mainservice.user.dto.UserDtoOut;
 import ru.practicum.mainservice.user.mapper.UserMapper;
 
 @UtilityClass
@@ -60,4 +63,22 @@ public class EventMapper {
                 .views(event.getViews())
                 .build();
     }
+
+    public static EventShortDtoOut toShortDto(EventShortView view, Long views) {
+        return EventShortDtoOut.builder()
+                .id(view.id())
+                .annotation(view.annotation())
+                .title(view.title())
+                .category(new CategoryDtoOut(view.categoryId(), view.categoryName()))
+                .paid(view.paid())
+                .eventDate(view.eventDate())
+                .initiator(UserDtoOut.builder()
+                        .id(view.initiatorId())
+                        .name(view.initiatorName())
+                        .email(view.initiatorEmail())
+                        .build())
+                .confirmedRequests(view.confirmedRequests())
+                .views(views)
+                .build();
+    }
 }
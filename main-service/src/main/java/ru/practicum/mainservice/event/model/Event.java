@@ -10,6 +10,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
@@ -18,6 +23,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.mainservice.category.model.Category;
 import ru.practicum.mainservice.user.model.User;
 
@@ -31,10 +37,18 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "events")
+@NamedEntityGraph(name = Event.WITH_CATEGORY_AND_INITIATOR, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator")
+})
 public class Event {
 
+    public static final String WITH_CATEGORY_AND_INITIATOR = "Event.withCategoryAndInitiator";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = Event.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 120)
@@ -66,12 +80,19 @@ public class Event {
     @Column(name = "published_on")
     private LocalDateTime publishedOn;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @Column(name = "location_lat", nullable = false)
     private Double locationLat;
 
     @Column(name = "location_lon", nullable = false)
     private Double locationLon;
 
+    @Column(name = "geo_cell", nullable = false)
+    private Long geoCell;
+
     @Builder.Default
     @Column(nullable = false)
     private Boolean paid = false;
@@ -89,11 +110,20 @@ public class Event {
     @Column(nullable = false)
     private EventState state = EventState.PENDING;
 
-    @Transient
+    /**
+     * Меняется только атомарными запросами {@code EventRepository.reserveSeats/releaseSeats}.
+     */
+    @Column(name = "confirmed_requests", insertable = false, updatable = false)
     @Builder.Default
     private Integer confirmedRequests = 0;
 
     @Transient
     @Builder.Default
     private Long views = 0L;
-}
\ No newline at end of file
+
+    @PrePersist
+    @PreUpdate
+    void updateGeoCell() {
+        geoCell = GeoGrid.cellOf(locationLat, locationLon);
+    }
+}
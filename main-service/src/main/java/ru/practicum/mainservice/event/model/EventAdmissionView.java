@@ -0,0 +1,7 @@
+package ru.practicum.mainservice.event.model;
+
+/**
+ * Поля события, нужные для проверки заявки до гейта допуска.
+ */
+public record EventAdmissionView(Long initiatorId, EventState state) {
+}
@@ -0,0 +1,14 @@
+package ru.practicum.mainservice.event.model;
+
+/**
+ * Строка сгруппированного запроса фасетов: число событий для сочетания
+ * категории, платности и месяца проведения.
+ */
+public record EventFacetRow(
+        Long categoryId,
+        String categoryName,
+        Boolean paid,
+        Integer year,
+        Integer month,
+        Long count) {
+}
@@ -36,6 +36,15 @@ public class EventFilter {
     @Builder.Default
     private Boolean onlyAvailable = false;
 
+    private Double lat;
+    private Double lon;
+    private Double radius;
+
+    private Double minLat;
+    private Double maxLat;
+    private Double minLon;
+    private Double maxLon;
+
     @Builder.Default
     private String sort = "EVENT_DATE";
 
@@ -50,7 +59,42 @@ public class EventFilter {
     @Builder.Default
     private EventState state = EventState.PUBLISHED;
 
+    /**
+     * Ключ для кеширования результатов, не зависящих от страницы.
+     */
+    public String cacheKey() {
+        return String.join("|",
+                String.valueOf(text),
+                String.valueOf(categories),
+                String.valueOf(paid),
+                String.valueOf(rangeStart),
+                String.valueOf(rangeEnd),
+                String.valueOf(onlyAvailable),
+                String.valueOf(state),
+                String.valueOf(lat),
+                String.valueOf(lon),
+                String.valueOf(radius),
+                String.valueOf(getBox()));
+    }
+
+    public boolean isDistanceSort() {
+        return "DISTANCE".equals(sort);
+    }
+
+    /**
+     * Прямоугольник из minLat/maxLat/minLon/maxLon или {@code null}, если он не задан.
+     */
+    public GeoGrid.Box getBox() {
+        if (minLat == null || maxLat == null || minLon == null || maxLon == null) {
+            return null;
+        }
+        return new GeoGrid.Box(minLat, maxLat, minLon, maxLon);
+    }
+
     public Pageable getPageable() {
+        if (pageable == null && isDistanceSort()) {
+            this.pageable = PageRequest.of(from / size, size);
+        }
         if (pageable == null) {
             Sort sort = Sort.by(Sort.Direction.DESC,
                     this.sort.equals("VIEWS") ? "views" : "eventDate");
@@ -0,0 +1,9 @@
+package ru.practicum.mainservice.event.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Поля события, нужные для проверки перед массовой модерацией.
+ */
+public record EventModerationView(Long id, EventState state, LocalDateTime eventDate) {
+}
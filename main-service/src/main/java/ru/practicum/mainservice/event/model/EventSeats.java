@@ -0,0 +1,11 @@
+package ru.practicum.mainservice.event.model;
+
+public interface EventSeats {
+
+    Long getId();
+
+    /**
+     * Свободные места; {@code -1}, если лимита нет.
+     */
+    Integer getFreeSeats();
+}
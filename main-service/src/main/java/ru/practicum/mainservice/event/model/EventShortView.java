@@ -0,0 +1,21 @@
+package ru.practicum.mainservice.event.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция события для публичного списка: только колонки {@code EventShortDtoOut},
+ * без {@code description} и без управляемых сущностей в persistence context.
+ */
+public record EventShortView(
+        Long id,
+        String title,
+        String annotation,
+        Long categoryId,
+        String categoryName,
+        Long initiatorId,
+        String initiatorName,
+        String initiatorEmail,
+        LocalDateTime eventDate,
+        Boolean paid,
+        Integer confirmedRequests) {
+}
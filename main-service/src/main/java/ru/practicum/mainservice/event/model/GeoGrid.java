@@ -0,0 +1,96 @@
+package ru.practicum.mainservice.event.model;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Равноугольная сетка 0.1° × 0.1° для поиска событий по координатам.
+ * Номер ячейки {@code row * COLUMNS + column} растёт с запада на восток внутри полосы широты,
+ * поэтому прямоугольник на карте раскладывается в небольшое число диапазонов номеров,
+ * по которым работает обычный B-tree индекс на {@code events.geo_cell}.
+ */
+@UtilityClass
+public class GeoGrid {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final int CELLS_PER_DEGREE = 10;
+    private static final int ROWS = 1800;
+    private static final int COLUMNS = 3600;
+    private static final int MAX_CELL_RANGES = 100;
+
+    public static long cellOf(double lat, double lon) {
+        return (long) row(lat) * COLUMNS + column(lon);
+    }
+
+    /**
+     * Диапазоны номеров ячеек, покрывающие прямоугольник. Пустой список, если диапазонов
+     * слишком много и отбор по ячейкам не даст выигрыша.
+     */
+    public static List<long[]> cellRanges(Box box) {
+        int[][] spans = box.crossesAntimeridian()
+                ? new int[][]{{0, column(box.maxLon())}, {column(box.minLon()), COLUMNS - 1}}
+                : new int[][]{{column(box.minLon()), column(box.maxLon())}};
+        List<long[]> ranges = new ArrayList<>();
+        for (int row = row(box.minLat()); row <= row(box.maxLat()); row++) {
+            for (int[] span : spans) {
+                long from = (long) row * COLUMNS + span[0];
+                long to = (long) row * COLUMNS + span[1];
+                long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+                if (last != null && last[1] + 1 == from) {
+                    last[1] = to;
+                } else {
+                    ranges.add(new long[]{from, to});
+                }
+            }
+        }
+        return ranges.size() > MAX_CELL_RANGES ? List.of() : ranges;
+    }
+
+    private static int row(double lat) {
+        return clamp((int) Math.floor((lat + 90) * CELLS_PER_DEGREE), ROWS - 1);
+    }
+
+    private static int column(double lon) {
+        return clamp((int) Math.floor((lon + 180) * CELLS_PER_DEGREE), COLUMNS - 1);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * Прямоугольник на карте. Если {@code minLon > maxLon}, он пересекает 180-й меридиан.
+     */
+    public record Box(double minLat, double maxLat, double minLon, double maxLon) {
+
+        /**
+         * Наименьший прямоугольник, содержащий круг радиусом {@code radiusKm} вокруг точки.
+         */
+        public static Box around(double lat, double lon, double radiusKm) {
+            double angularRadius = radiusKm / EARTH_RADIUS_KM;
+            double deltaLat = Math.toDegrees(angularRadius);
+            double minLat = Math.max(-90, lat - deltaLat);
+            double maxLat = Math.min(90, lat + deltaLat);
+            double ratio = Math.sin(angularRadius) / Math.cos(Math.toRadians(lat));
+            if (minLat == -90 || maxLat == 90 || ratio >= 1) {
+                return new Box(minLat, maxLat, -180, 180);
+            }
+            double deltaLon = Math.toDegrees(Math.asin(ratio));
+            return new Box(minLat, maxLat, normalizeLon(lon - deltaLon), normalizeLon(lon + deltaLon));
+        }
+
+        public boolean crossesAntimeridian() {
+            return minLon > maxLon;
+        }
+
+        private static double normalizeLon(double lon) {
+            if (lon < -180) {
+                return lon + 360;
+            }
+            return lon > 180 ? lon - 360 : lon;
+        }
+    }
+}
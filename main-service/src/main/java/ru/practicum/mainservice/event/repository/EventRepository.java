@@ -1,27 +1,130 @@
 package ru.practicum.mainservice.event.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.mainservice.event.model.Event;
+import ru.practicum.mainservice.event.model.EventAdmissionView;
+import ru.practicum.mainservice.event.model.EventModerationView;
+import ru.practicum.mainservice.event.model.EventSeats;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface EventRepository extends
         JpaRepository<Event, Long>,
-        JpaSpecificationExecutor<Event> {
+        JpaSpecificationExecutor<Event>,
+        EventSliceRepository {
 
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     @Query("SELECT e FROM Event e WHERE e.initiator.id = :userId")
-    Page<Event> findByInitiatorId(@Param("userId") Long userId, Pageable pageable);
+    Slice<Event> findByInitiatorId(@Param("userId") Long userId, Pageable pageable);
 
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     @Query(value = """
             SELECT e FROM Event e
             WHERE e.id = :id AND e.state = 'PUBLISHED'
             """)
     Optional<Event> findPublishedById(@Param("id") Long id);
 
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
+    @Query(value = """
+            SELECT e FROM Event e
+            WHERE e.id IN :ids AND e.state = 'PUBLISHED'
+            """)
+    List<Event> findPublishedByIdIn(@Param("ids") Collection<Long> ids);
+
     boolean existsByCategoryId(Long categoryId);
+
+    @Query("""
+            SELECT new ru.practicum.mainservice.event.model.EventModerationView(e.id, e.state, e.eventDate)
+            FROM Event e
+            WHERE e.id IN :ids
+            """)
+    List<EventModerationView> findModerationViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT new ru.practicum.mainservice.event.model.EventAdmissionView(e.initiator.id, e.state)
+            FROM Event e
+            WHERE e.id = :id
+            """)
+    Optional<EventAdmissionView> findAdmissionViewById(@Param("id") Long id);
+
+    @Query("SELECT e.confirmedRequests FROM Event e WHERE e.id = :id")
+    Optional<Integer> findConfirmedRequestsById(@Param("id") Long id);
+
+    /**
+     * Публикует ожидающие события одним UPDATE. Условия проверяются повторно в WHERE,
+     * поэтому события, изменённые параллельно, не попадут в результат.
+     */
+    @Query(value = """
+            UPDATE events
+            SET state = 'PUBLISHED', published_on = :now, updated_at = :now
+            WHERE id IN (:ids) AND state = 'PENDING' AND event_date >= :minEventDate
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> publishPending(@Param("ids") Collection<Long> ids,
+                              @Param("now") LocalDateTime now,
+                              @Param("minEventDate") LocalDateTime minEventDate);
+
+    @Query(value = """
+            UPDATE events
+            SET state = 'CANCELED', updated_at = :now
+            WHERE id IN (:ids) AND state <> 'PUBLISHED'
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> rejectUnpublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Атомарно занимает до {@code count} мест: строка события блокируется, поэтому параллельные
+     * заявки не превысят лимит. Возвращает число выделенных мест (для события без лимита — все).
+     */
+    @Query(value = """
+            UPDATE events e
+            SET confirmed_requests = e.confirmed_requests + s.granted
+            FROM (SELECT id,
+                         CASE WHEN participant_limit = 0 THEN :count
+                              ELSE GREATEST(LEAST(:count, participant_limit - confirmed_requests), 0)
+                         END AS granted
+                  FROM events
+                  WHERE id = :eventId
+                  FOR UPDATE) s
+            WHERE e.id = s.id
+            RETURNING s.granted
+            """, nativeQuery = true)
+    Optional<Integer> reserveSeats(@Param("eventId") Long eventId, @Param("count") int count);
+
+    @Query("""
+            SELECT e.id AS id,
+                   CASE WHEN e.participantLimit = 0 THEN -1
+                        ELSE GREATEST(e.participantLimit - e.confirmedRequests, 0)
+                   END AS freeSeats
+            FROM Event e
+            WHERE e.id IN :ids AND e.state = 'PUBLISHED'
+            """)
+    List<EventSeats> findFreeSeats(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            UPDATE events
+            SET confirmed_requests = confirmed_requests - :count
+            WHERE id = :eventId AND confirmed_requests >= :count
+            """, nativeQuery = true)
+    int releaseSeats(@Param("eventId") Long eventId, @Param("count") int count);
+
+    /**
+     * Момент последнего изменения опубликованного события или его категории.
+     */
+    @Query("""
+            SELECT GREATEST(e.updatedAt, c.updatedAt) FROM Event e JOIN e.category c
+            WHERE e.id = :id AND e.state = 'PUBLISHED'
+            """)
+    Optional<LocalDateTime> findPublishedUpdatedAtById(@Param("id") Long id);
 }
@@ -0,0 +1,43 @@
+package ru.practicum.mainservice.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.mainservice.event.model.Event;
+import ru.practicum.mainservice.event.model.EventFacetRow;
+import ru.practicum.mainservice.event.model.EventShortView;
+
+import java.util.List;
+
+/**
+ * Расширение {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}:
+ * постраничная выборка по спецификации без дополнительного {@code SELECT COUNT(*)}.
+ */
+public interface EventSliceRepository {
+
+    /**
+     * Выбирает {@code pageable.getPageSize() + 1} строк и по лишней строке определяет,
+     * есть ли следующая страница.
+     */
+    default Slice<Event> findSlice(Specification<Event> spec, Pageable pageable) {
+        return findSlice(spec, pageable, null);
+    }
+
+    /**
+     * То же, но с загрузкой связей по именованному entity graph одним запросом,
+     * например {@link Event#WITH_CATEGORY_AND_INITIATOR}.
+     */
+    Slice<Event> findSlice(Specification<Event> spec, Pageable pageable, String entityGraph);
+
+    /**
+     * Выбирает по спецификации только поля краткого представления события
+     * вместе с названием категории и данными инициатора.
+     */
+    Slice<EventShortView> findShortViews(Specification<Event> spec, Pageable pageable);
+
+    /**
+     * Число событий по спецификации, сгруппированное по категории, платности
+     * и году-месяцу проведения, одним запросом.
+     */
+    List<EventFacetRow> findFacetRows(Specification<Event> spec);
+}
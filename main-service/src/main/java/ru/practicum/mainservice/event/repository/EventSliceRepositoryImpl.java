@@ -0,0 +1,121 @@
+package ru.practicum.mainservice.event.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.mainservice.category.model.Category;
+import ru.practicum.mainservice.event.model.Event;
+import ru.practicum.mainservice.event.model.EventFacetRow;
+import ru.practicum.mainservice.event.model.EventShortView;
+import ru.practicum.mainservice.user.model.User;
+
+import java.util.List;
+
+public class EventSliceRepositoryImpl implements EventSliceRepository {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Event> findSlice(Specification<Event> spec, Pageable pageable, String entityGraph) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        query.select(root);
+        applySpecification(spec, root, query, cb);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        TypedQuery<Event> typedQuery = entityManager.createQuery(query);
+        if (entityGraph != null) {
+            typedQuery.setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(entityGraph));
+        }
+        return toSlice(typedQuery, pageable);
+    }
+
+    @Override
+    public Slice<EventShortView> findShortViews(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventShortView> query = cb.createQuery(EventShortView.class);
+        Root<Event> root = query.from(Event.class);
+        Join<Event, Category> category = root.join("category");
+        Join<Event, User> initiator = root.join("initiator");
+        query.select(cb.construct(EventShortView.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("annotation"),
+                category.get("id"),
+                category.get("name"),
+                initiator.get("id"),
+                initiator.get("name"),
+                initiator.get("email"),
+                root.get("eventDate"),
+                root.get("paid"),
+                root.get("confirmedRequests")));
+        applySpecification(spec, root, query, cb);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        return toSlice(entityManager.createQuery(query), pageable);
+    }
+
+    @Override
+    public List<EventFacetRow> findFacetRows(Specification<Event> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventFacetRow> query = cb.createQuery(EventFacetRow.class);
+        Root<Event> root = query.from(Event.class);
+        Join<Event, Category> category = root.join("category");
+        Expression<Integer> year = cb.function("year", Integer.class, root.get("eventDate"));
+        Expression<Integer> month = cb.function("month", Integer.class, root.get("eventDate"));
+        query.select(cb.construct(EventFacetRow.class,
+                category.get("id"),
+                category.get("name"),
+                root.get("paid"),
+                year,
+                month,
+                cb.count(root)));
+        applySpecification(spec, root, query, cb);
+        // спецификация может задать сортировку (например, по расстоянию), в группировке она не нужна
+        query.orderBy(List.of());
+        query.groupBy(category.get("id"), category.get("name"), root.get("paid"), year, month);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static <T> void applySpecification(Specification<Event> spec, Root<Event> root,
+                                               CriteriaQuery<T> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private static <T> Slice<T> toSlice(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList());
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
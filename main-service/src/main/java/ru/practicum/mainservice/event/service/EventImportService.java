@@ -0,0 +1,252 @@
+package ru.practicum.mainservice.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.mainservice.category.repository.CategoryRepository;
+import ru.practicum.mainservice.event.dto.EventCreateDto;
+import ru.practicum.mainservice.event.dto.EventImportResultDto;
+import ru.practicum.mainservice.event.model.Event;
+import ru.practicum.mainservice.event.model.EventState;
+import ru.practicum.mainservice.event.model.GeoGrid;
+import ru.practicum.mainservice.exception.NotFoundException;
+import ru.practicum.mainservice.user.repository.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт событий инициатора из NDJSON: строки читаются и проверяются по одной,
+ * корректные вставляются пачками через JDBC (каждая пачка в своей транзакции; если пачка не сохранилась,
+ * её строки повторяются по одной),
+ * а результат по каждой строке сразу пишется в ответ.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MIN_HOURS_BEFORE_EVENT = 2;
+
+    // каждое значение events_seq закрепляет диапазон (v - ID_ALLOCATION_SIZE, v], как у pooled-оптимизатора Hibernate
+    private static final String ALLOCATE_IDS_SQL = """
+            SELECT nextval('events_seq') FROM generate_series(1, ?)
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO events (id, title, annotation, description, category_id, initiator_id, event_date,
+                                created_at, updated_at, location_lat, location_lon, geo_cell, paid,
+                                participant_limit, request_moderation, state)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * Проверяет пользователя до начала чтения, чтобы ошибка вернулась обычным ответом 404.
+     */
+    public void checkUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User", userId);
+        }
+    }
+
+    public void importEvents(Long userId, InputStream input, OutputStream output) throws IOException {
+        Set<Long> categoryIds = categoryRepository.findAllIds();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        List<PendingEvent> batch = new ArrayList<>(BATCH_SIZE);
+        long lineNumber = 0;
+        int created = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String error = null;
+            EventCreateDto eventDto = null;
+            try {
+                // null, массив или скаляр — ошибка этой строки, а не всего импорта
+                JsonNode node = objectMapper.readTree(line);
+                if (node == null || !node.isObject()) {
+                    error = "Пустая запись: ожидается JSON-объект события";
+                } else {
+                    eventDto = objectMapper.treeToValue(node, EventCreateDto.class);
+                    error = validate(eventDto, categoryIds);
+                }
+            } catch (JsonProcessingException e) {
+                error = "Некорректный JSON: " + e.getOriginalMessage();
+            }
+            if (error != null) {
+                write(writer, EventImportResultDto.builder().line(lineNumber).created(false).error(error).build());
+                continue;
+            }
+            batch.add(new PendingEvent(lineNumber, eventDto));
+            if (batch.size() == BATCH_SIZE) {
+                created += flush(userId, batch, writer);
+                writer.flush();
+            }
+        }
+        created += flush(userId, batch, writer);
+        writer.flush();
+        log.info("Импорт событий пользователя {}: прочитано строк {}, создано событий {}", userId, lineNumber, created);
+    }
+
+    private String validate(EventCreateDto eventDto, Set<Long> categoryIds) {
+        Set<ConstraintViolation<EventCreateDto>> violations = validator.validate(eventDto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (eventDto.getLocation().getLat() == null || eventDto.getLocation().getLon() == null) {
+            return "location: координаты lat и lon обязательны";
+        }
+        if (eventDto.getEventDate().isBefore(LocalDateTime.now().plusHours(MIN_HOURS_BEFORE_EVENT))) {
+            return "eventDate: дата события должна быть не ранее, чем через 2 часа";
+        }
+        if (!categoryIds.contains(eventDto.getCategoryId())) {
+            return new NotFoundException("Category", eventDto.getCategoryId()).getMessage();
+        }
+        return null;
+    }
+
+    private int flush(Long userId, List<PendingEvent> batch, Writer writer) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // id берутся из последовательности вне транзакции пачки и остаются за строками при повторе по одной
+        List<Long> ids = allocateIds(batch.size());
+        List<EventImportResultDto> results;
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(userId, batch, ids));
+            results = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(created(batch.get(i), ids.get(i)));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить пачку из {} событий, сохраняем по одному: {}", batch.size(), e.getMessage());
+            results = insertOneByOne(userId, batch, ids);
+        }
+        int created = 0;
+        for (EventImportResultDto result : results) {
+            write(writer, result);
+            if (result.getCreated()) {
+                created++;
+            }
+        }
+        batch.clear();
+        return created;
+    }
+
+    /**
+     * Повтор неудавшейся пачки по одной строке: ошибка сохранения отмечается только у тех строк,
+     * на которых она произошла.
+     */
+    private List<EventImportResultDto> insertOneByOne(Long userId, List<PendingEvent> batch, List<Long> ids) {
+        List<EventImportResultDto> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEvent pending = batch.get(i);
+            Long id = ids.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(userId, List.of(pending), List.of(id)));
+                results.add(created(pending, id));
+            } catch (DataAccessException e) {
+                results.add(EventImportResultDto.builder()
+                        .line(pending.line())
+                        .created(false)
+                        .error("Ошибка сохранения: " + e.getMostSpecificCause().getMessage())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    private static EventImportResultDto created(PendingEvent pending, Long eventId) {
+        return EventImportResultDto.builder()
+                .line(pending.line())
+                .created(true)
+                .eventId(eventId)
+                .build();
+    }
+
+    private void insert(Long userId, List<PendingEvent> batch, List<Long> ids) {
+        LocalDateTime now = toJdbcTime(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            EventCreateDto dto = batch.get(i).event();
+            double lat = dto.getLocation().getLat();
+            double lon = dto.getLocation().getLon();
+            rows.add(new Object[]{
+                    ids.get(i), dto.getTitle(), dto.getAnnotation(), dto.getDescription(), dto.getCategoryId(), userId,
+                    toJdbcTime(dto.getEventDate()), now, now, lat, lon, GeoGrid.cellOf(lat, lon),
+                    Boolean.TRUE.equals(dto.getPaid()),
+                    dto.getParticipantLimit() == null ? 0 : dto.getParticipantLimit(),
+                    dto.getRequestModeration() == null || dto.getRequestModeration(),
+                    EventState.PENDING.name()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Hibernate пишет время с hibernate.jdbc.time_zone=UTC, т.е. локальное время JVM переводится в UTC.
+     * Здесь то же преобразование, а значение передаётся как LocalDateTime (setObject), без Timestamp
+     * и без повторного учёта часового пояса JVM.
+     */
+    private static LocalDateTime toJdbcTime(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC)
+                .toLocalDateTime();
+    }
+
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + Event.ID_ALLOCATION_SIZE - 1) / Event.ID_ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>(blocks * Event.ID_ALLOCATION_SIZE);
+        for (Long hi : jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, blocks)) {
+            for (long id = hi - Event.ID_ALLOCATION_SIZE + 1; id <= hi; id++) {
+                ids.add(id);
+            }
+        }
+        return ids.subList(0, count);
+    }
+
+    private void write(Writer writer, EventImportResultDto result) throws IOException {
+        writer.write(objectMapper.writeValueAsString(result));
+        writer.write('\n');
+    }
+
+    private record PendingEvent(long line, EventCreateDto event) {
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.mainservice.event.service;
 
+import ru.practicum.mainservice.common.ResourceVersion;
+import ru.practicum.mainservice.event.dto.EventBulkModerationDto;
 import ru.practicum.mainservice.event.dto.EventCreateDto;
 import ru.practicum.mainservice.event.dto.EventDtoOut;
+import ru.practicum.mainservice.event.dto.EventFacetsDto;
+import ru.practicum.mainservice.event.dto.EventModerationResultDto;
 import ru.practicum.mainservice.event.dto.EventShortDtoOut;
 import ru.practicum.mainservice.event.dto.EventUpdateAdminDto;
 import ru.practicum.mainservice.event.dto.EventUpdateDto;
@@ -9,6 +13,7 @@ import ru.practicum.mainservice.event.model.EventAdminFilter;
 import ru.practicum.mainservice.event.model.EventFilter;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface EventService {
 
@@ -18,12 +23,22 @@ public interface EventService {
 
     EventDtoOut update(Long eventId, EventUpdateAdminDto eventDto);
 
+    List<EventModerationResultDto> moderate(EventBulkModerationDto moderationDto);
+
     EventDtoOut findPublished(Long eventId);
 
+    ResourceVersion findPublishedVersion(Long eventId);
+
+    List<EventDtoOut> findPublished(Collection<Long> eventIds);
+
     EventDtoOut find(Long userId, Long eventId);
 
     Collection<EventShortDtoOut> findShortEventsBy(EventFilter filter);
 
+    long countShortEventsBy(EventFilter filter);
+
+    EventFacetsDto findFacets(EventFilter filter);
+
     Collection<EventDtoOut> findFullEventsBy(EventAdminFilter filter);
 
     Collection<EventShortDtoOut> findByInitiator(Long userId, Integer offset, Integer limit);
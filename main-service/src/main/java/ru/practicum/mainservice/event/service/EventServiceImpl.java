@@ -2,7 +2,9 @@ package ru.practicum.mainservice.event.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -12,35 +14,58 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.ViewStatsDTO;
 import ru.practicum.mainservice.category.model.Category;
 import ru.practicum.mainservice.category.repository.CategoryRepository;
+import ru.practicum.mainservice.common.ResourceVersion;
+import ru.practicum.mainservice.config.CacheConfig;
+import ru.practicum.mainservice.config.EnrichmentConfig.EnrichmentExecutor;
 
+import ru.practicum.mainservice.event.dto.EventBulkModerationDto;
 import ru.practicum.mainservice.event.dto.EventCreateDto;
 import ru.practicum.mainservice.event.dto.EventDtoOut;
+import ru.practicum.mainservice.event.dto.EventFacetDto;
+import ru.practicum.mainservice.event.dto.EventFacetsDto;
+import ru.practicum.mainservice.event.dto.EventModerationResultDto;
 import ru.practicum.mainservice.event.dto.EventShortDtoOut;
 import ru.practicum.mainservice.event.dto.EventUpdateAdminDto;
 import ru.practicum.mainservice.event.dto.EventUpdateDto;
 import ru.practicum.mainservice.event.mapper.EventMapper;
 import ru.practicum.mainservice.event.model.Event;
 import ru.practicum.mainservice.event.model.EventAdminFilter;
+import ru.practicum.mainservice.event.model.EventFacetRow;
 import ru.practicum.mainservice.event.model.EventFilter;
+import ru.practicum.mainservice.event.model.EventModerationView;
+import ru.practicum.mainservice.event.model.EventShortView;
 import ru.practicum.mainservice.event.model.EventState;
 import ru.practicum.mainservice.event.repository.EventRepository;
 import ru.practicum.mainservice.exception.ConditionNotMetException;
 import ru.practicum.mainservice.exception.NoAccessException;
 import ru.practicum.mainservice.exception.NotFoundException;
+import ru.practicum.mainservice.outbox.service.OutboxPublisher;
+import ru.practicum.mainservice.participation.model.RequestStatus;
+import ru.practicum.mainservice.participation.model.RequestStatusCount;
 import ru.practicum.mainservice.participation.repository.ParticipationRequestRepository;
 import ru.practicum.mainservice.user.model.User;
 import ru.practicum.mainservice.user.repository.UserRepository;
 import ru.practicum.statsclient.client.StatsClient;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -54,12 +79,22 @@ public class EventServiceImpl implements EventService {
 
     private static final int MIN_TIME_TO_UNPUBLISHED_EVENT = 2;
     private static final int MIN_TIME_TO_PUBLISHED_EVENT = 1;
+    private static final int MODERATION_CHUNK_SIZE = 1000;
 
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final ParticipationRequestRepository requestRepository;
     private final StatsClient statsClient;
+    private final PublishedEventLoader publishedEventLoader;
+    private final EnrichmentExecutor enrichmentExecutor;
+    private final OutboxPublisher outboxPublisher;
+
+    @Value("${ewm.enrichment.concurrent}")
+    private boolean concurrentEnrichment;
+
+    @Value("${ewm.enrichment.timeout-ms}")
+    private long enrichmentTimeoutMs;
 
     @Override
     @Transactional
@@ -76,6 +111,7 @@ public class EventServiceImpl implements EventService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PUBLISHED_EVENTS, key = "#eventId")
     public EventDtoOut update(Long userId, Long eventId, EventUpdateDto eventDto) {
         Event event = getEvent(eventId);
         if (!event.getInitiator().getId().equals(userId)) {
@@ -92,7 +128,7 @@ public class EventServiceImpl implements EventService {
             event.setLocationLat(loc.getLat());
             event.setLocationLon(loc.getLon());
         });
-        Optional.ofNullable(eventDto.getParticipantLimit()).ifPresent(event::setParticipantLimit);
+        Optional.ofNullable(eventDto.getParticipantLimit()).ifPresent(limit -> changeParticipantLimit(event, limit));
         Optional.ofNullable(eventDto.getRequestModeration()).ifPresent(event::setRequestModeration);
         if (eventDto.getCategoryId() != null
                 && !eventDto.getCategoryId().equals(event.getCategory().getId())) {
@@ -109,6 +145,7 @@ public class EventServiceImpl implements EventService {
                 case SEND_TO_REVIEW -> event.setState(EventState.PENDING);
                 case CANCEL_REVIEW -> event.setState(EventState.CANCELED);
             }
+            outboxPublisher.eventStateChanged(List.of(eventId), event.getState());
         }
         Event updated = eventRepository.save(event);
         return EventMapper.toDto(updated);
@@ -116,18 +153,18 @@ public class EventServiceImpl implements EventService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PUBLISHED_EVENTS, key = "#eventId")
     public EventDtoOut update(Long eventId, EventUpdateAdminDto eventDto) {
         Event event = getEvent(eventId);
         Optional.ofNullable(eventDto.getTitle()).ifPresent(event::setTitle);
         Optional.ofNullable(eventDto.getAnnotation()).ifPresent(event::setAnnotation);
         Optional.ofNullable(eventDto.getDescription()).ifPresent(event::setDescription);
-        Optional.ofNullable(eventDto.getParticipantLimit()).ifPresent(event::setParticipantLimit);
         Optional.ofNullable(eventDto.getPaid()).ifPresent(event::setPaid);
         Optional.ofNullable(eventDto.getLocation()).ifPresent(loc -> {
             event.setLocationLat(loc.getLat());
             event.setLocationLon(loc.getLon());
         });
-        Optional.ofNullable(eventDto.getParticipantLimit()).ifPresent(event::setParticipantLimit);
+        Optional.ofNullable(eventDto.getParticipantLimit()).ifPresent(limit -> changeParticipantLimit(event, limit));
         Optional.ofNullable(eventDto.getRequestModeration()).ifPresent(event::setRequestModeration);
         if (eventDto.getEventDate() != null) {
             validateEventDate(eventDto.getEventDate(), event.getState());
@@ -138,50 +175,181 @@ public class EventServiceImpl implements EventService {
                 case PUBLISH_EVENT -> publishEvent(event);
                 case REJECT_EVENT -> rejectEvent(event);
             }
+            outboxPublisher.eventStateChanged(List.of(eventId), event.getState());
         }
         Event saved = eventRepository.save(event);
         return EventMapper.toDto(saved);
     }
 
+    /**
+     * Массовая модерация: события проверяются по лёгкой проекции, затем статусы
+     * меняются UPDATE-запросами пачками по {@value #MODERATION_CHUNK_SIZE} id в одной транзакции.
+     */
+    @Override
+    @Transactional
+    public List<EventModerationResultDto> moderate(EventBulkModerationDto moderationDto) {
+        List<Long> eventIds = moderationDto.getEventIds().stream()
+                .distinct()
+                .toList();
+        boolean publish = moderationDto.getStateAction() == EventUpdateAdminDto.StateAction.PUBLISH_EVENT;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime minEventDate = now.plusHours(MIN_TIME_TO_PUBLISHED_EVENT);
+
+        Map<Long, EventModerationView> views = new HashMap<>();
+        for (List<Long> chunk : chunks(eventIds)) {
+            eventRepository.findModerationViewsByIdIn(chunk)
+                    .forEach(view -> views.put(view.id(), view));
+        }
+
+        Map<Long, String> rejected = new HashMap<>();
+        List<Long> candidates = new ArrayList<>();
+        for (Long eventId : eventIds) {
+            EventModerationView view = views.get(eventId);
+            String reason;
+            if (view == null) {
+                reason = new NotFoundException("Event", eventId).getMessage();
+            } else if (publish && view.state() != EventState.PENDING) {
+                reason = "Для публикации события должны иметь статус ожидающие";
+            } else if (publish && view.eventDate().isBefore(minEventDate)) {
+                reason = "Дата события должна быть не ранее, чем через час после публикации";
+            } else if (!publish && view.state() == EventState.PUBLISHED) {
+                reason = "Опубликованные события не могут быть отклонены";
+            } else {
+                candidates.add(eventId);
+                continue;
+            }
+            rejected.put(eventId, reason);
+        }
+
+        Set<Long> updated = new HashSet<>();
+        for (List<Long> chunk : chunks(candidates)) {
+            updated.addAll(publish
+                    ? eventRepository.publishPending(chunk, now, minEventDate)
+                    : eventRepository.rejectUnpublished(chunk, now));
+        }
+        log.info("Массовая модерация {}: изменено {} из {} событий",
+                moderationDto.getStateAction(), updated.size(), eventIds.size());
+
+        EventState targetState = publish ? EventState.PUBLISHED : EventState.CANCELED;
+        outboxPublisher.eventStateChanged(updated, targetState);
+        return eventIds.stream()
+                .map(eventId -> updated.contains(eventId)
+                        ? EventModerationResultDto.builder()
+                                .eventId(eventId)
+                                .applied(true)
+                                .state(targetState)
+                                .build()
+                        : EventModerationResultDto.builder()
+                                .eventId(eventId)
+                                .applied(false)
+                                .state(views.containsKey(eventId) ? views.get(eventId).state() : null)
+                                .reason(rejected.getOrDefault(eventId, "Состояние события изменилось во время модерации"))
+                                .build())
+                .toList();
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MODERATION_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MODERATION_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
     @Override
     public EventDtoOut findPublished(Long eventId) {
-        Event event = eventRepository.findPublishedById(eventId)
+        EventDtoOut cached = publishedEventLoader.load(eventId);
+        // кэш хранит описание события, а счётчик мест читается заново из поддерживаемой колонки
+        CompletableFuture<Map<Long, Long>> views = startViewsLoading(List.of(eventId));
+        Integer confirmedRequests;
+        try {
+            confirmedRequests = eventRepository.findConfirmedRequestsById(eventId).orElse(0);
+        } catch (RuntimeException e) {
+            views.cancel(true);
+            throw e;
+        }
+        return cached.toBuilder()
+                .confirmedRequests(confirmedRequests)
+                .views(joinViews(views).getOrDefault(eventId, 0L))
+                .build();
+    }
+
+    /**
+     * Опубликованные события из списка одним запросом, в порядке переданных id.
+     * Неопубликованные и несуществующие id пропускаются.
+     */
+    @Override
+    public List<EventDtoOut> findPublished(Collection<Long> eventIds) {
+        List<Event> events = eventRepository.findPublishedByIdIn(eventIds);
+        enrichWithStats(events);
+        Map<Long, Event> byId = events.stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        return eventIds.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(EventMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public ResourceVersion findPublishedVersion(Long eventId) {
+        LocalDateTime updatedAt = eventRepository.findPublishedUpdatedAtById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event", eventId));
-        enrichWithStats(Collections.singletonList(event));
-        return EventMapper.toDto(event);
+        return ResourceVersion.of(updatedAt, "event", eventId);
     }
 
     private void enrichWithStats(List<Event> events) {
         if (events == null || events.isEmpty()) {
             return;
         }
-        enrichEventsWithConfirmedRequests(events);
-        enrichWithViewsCountCollection(events);
+        List<Long> eventIds = events.stream()
+                .map(Event::getId)
+                .toList();
+        Map<Long, Long> views = loadViews(eventIds);
+        events.forEach(event -> event.setViews(views.getOrDefault(event.getId(), 0L)));
     }
 
     void enrichWithStatsCollection(Collection<Event> events) {
         if (events == null || events.isEmpty()) {
             return;
         }
-        List<Event> eventList = new ArrayList<>(events);
-        enrichEventsWithConfirmedRequests(eventList);
-        enrichWithViewsCountCollection(eventList);
+        enrichWithStats(new ArrayList<>(events));
     }
 
-    private void enrichWithViewsCountCollection(Collection<Event> events) {
-        if (events.isEmpty()) {
-            return;
+    /**
+     * Просмотры событий из сервиса статистики. Подтверждённые заявки сюда не входят: они
+     * поддерживаются в {@code events.confirmed_requests} и читаются вместе с событием.
+     */
+    private Map<Long, Long> loadViews(List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Collections.emptyMap();
         }
+        return joinViews(startViewsLoading(eventIds));
+    }
 
-        List<Long> eventIds = events.stream()
-                .map(Event::getId)
-                .collect(Collectors.toList());
-
-        Map<Long, Long> eventViewsMap = getViewsCountForEvents(eventIds);
+    /**
+     * В параллельном режиме HTTP-запрос к статистике уходит на отдельный виртуальный поток,
+     * пока текущий поток читает БД. Не успевшие к дедлайну просмотры считаются нулевыми.
+     */
+    private CompletableFuture<Map<Long, Long>> startViewsLoading(List<Long> eventIds) {
+        if (!concurrentEnrichment) {
+            return CompletableFuture.completedFuture(getViewsCountForEvents(eventIds));
+        }
+        return enrichmentExecutor
+                .supplyAsync(() -> getViewsCountForEvents(eventIds))
+                .completeOnTimeout(Collections.emptyMap(), enrichmentTimeoutMs, TimeUnit.MILLISECONDS);
+    }
 
-        events.forEach(event ->
-                event.setViews(eventViewsMap.getOrDefault(event.getId(), 0L))
-        );
+    private static Map<Long, Long> joinViews(CompletableFuture<Map<Long, Long>> views) {
+        try {
+            return views.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     private Map<Long, Long> getViewsCountForEvents(List<Long> eventIds) {
@@ -240,11 +408,55 @@ public class EventServiceImpl implements EventService {
     @Override
     public Collection<EventShortDtoOut> findShortEventsBy(EventFilter filter) {
         Specification<Event> spec = buildSpecification(filter);
-        return findBy(spec, filter.getPageable()).stream()
-                .map(EventMapper::toShortDto)
+        List<EventShortView> views = eventRepository.findShortViews(spec, filter.getPageable()).getContent();
+        if (views.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> eventIds = views.stream()
+                .map(EventShortView::id)
+                .toList();
+        Map<Long, Long> viewCounts = loadViews(eventIds);
+        return views.stream()
+                .map(view -> EventMapper.toShortDto(view, viewCounts.getOrDefault(view.id(), 0L)))
                 .toList();
     }
 
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EVENT_COUNTS, key = "#filter.cacheKey()")
+    public long countShortEventsBy(EventFilter filter) {
+        return eventRepository.count(buildSpecification(filter));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EVENT_FACETS, key = "#filter.cacheKey()")
+    public EventFacetsDto findFacets(EventFilter filter) {
+        Map<Long, String> categoryNames = new HashMap<>();
+        Map<Long, Long> byCategory = new HashMap<>();
+        Map<Boolean, Long> byPaid = new TreeMap<>();
+        Map<YearMonth, Long> byMonth = new TreeMap<>();
+        for (EventFacetRow row : eventRepository.findFacetRows(buildSpecification(filter))) {
+            categoryNames.put(row.categoryId(), row.categoryName());
+            byCategory.merge(row.categoryId(), row.count(), Long::sum);
+            byPaid.merge(row.paid(), row.count(), Long::sum);
+            byMonth.merge(YearMonth.of(row.year(), row.month()), row.count(), Long::sum);
+        }
+        return EventFacetsDto.builder()
+                .total(byPaid.values().stream().mapToLong(Long::longValue).sum())
+                .categories(byCategory.entrySet().stream()
+                        .sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .map(entry -> new EventFacetDto(String.valueOf(entry.getKey()),
+                                categoryNames.get(entry.getKey()), entry.getValue()))
+                        .toList())
+                .paid(byPaid.entrySet().stream()
+                        .map(entry -> new EventFacetDto(String.valueOf(entry.getKey()), null, entry.getValue()))
+                        .toList())
+                .months(byMonth.entrySet().stream()
+                        .map(entry -> new EventFacetDto(entry.getKey().toString(), null, entry.getValue()))
+                        .toList())
+                .build();
+    }
+
     @Override
     public Collection<EventDtoOut> findFullEventsBy(EventAdminFilter filter) {
         Specification<Event> spec = buildSpecification(filter);
@@ -254,7 +466,9 @@ public class EventServiceImpl implements EventService {
     }
 
     private Collection<Event> findBy(Specification<Event> spec, Pageable pageable) {
-        Collection<Event> events = eventRepository.findAll(spec, pageable).getContent();
+        Collection<Event> events = eventRepository
+                .findSlice(spec, pageable, Event.WITH_CATEGORY_AND_INITIATOR)
+                .getContent();
         enrichWithStatsCollection(events);
         return events;
     }
@@ -280,7 +494,13 @@ public class EventServiceImpl implements EventService {
                         optionalSpec(EventSpecifications.withState(filter.getState())),
                         optionalSpec(EventSpecifications.withOnlyAvailable(filter.getOnlyAvailable())),
                         optionalSpec(EventSpecifications.withRangeStart(filter.getRangeStart())),
-                        optionalSpec(EventSpecifications.withRangeEnd(filter.getRangeEnd()))
+                        optionalSpec(EventSpecifications.withRangeEnd(filter.getRangeEnd())),
+                        optionalSpec(EventSpecifications.withinRadius(
+                                filter.getLat(), filter.getLon(), filter.getRadius())),
+                        optionalSpec(EventSpecifications.withinBox(filter.getBox())),
+                        filter.isDistanceSort()
+                                ? optionalSpec(EventSpecifications.orderByDistance(filter.getLat(), filter.getLon()))
+                                : null
                 )
                 .filter(Objects::nonNull)
                 .reduce(Specification::and)
@@ -298,47 +518,46 @@ public class EventServiceImpl implements EventService {
         }
 
         Pageable pageable = PageRequest.of(offset / limit, limit, Sort.by("id"));
-        Page<Event> eventPage = eventRepository.findByInitiatorId(userId, pageable);
-        List<Event> events = eventPage.getContent();
-        enrichWithStatsCollection(events);
-
-        return events.stream()
-                .map(EventMapper::toShortDto)
-                .toList();
-    }
-
-    @Transactional(readOnly = true)
-    void enrichEventsWithConfirmedRequests(Collection<Event> events) {
-        if (events == null || events.isEmpty()) {
-            return;
+        List<Event> events = eventRepository.findByInitiatorId(userId, pageable).getContent();
+        if (events.isEmpty()) {
+            return Collections.emptyList();
         }
-        Map<Long, Integer> confirmedRequestsCounts = getConfirmedRequestsCountsByEventIds(events);
-        applyConfirmedRequestsCountsToEvents(events, confirmedRequestsCounts);
-    }
-
-    private Map<Long, Integer> getConfirmedRequestsCountsByEventIds(Collection<Event> events) {
         List<Long> eventIds = events.stream()
                 .map(Event::getId)
-                .collect(Collectors.toList());
+                .toList();
 
-        if (eventIds.isEmpty()) {
-            return Collections.emptyMap();
+        // подтверждённые уже есть в событии (events.confirmed_requests), агрегат нужен для остальных статусов
+        CompletableFuture<Map<Long, Long>> views = startViewsLoading(eventIds);
+        Map<Long, Map<RequestStatus, Long>> requestCounts;
+        try {
+            requestCounts = getRequestCountsByStatus(eventIds);
+        } catch (RuntimeException e) {
+            views.cancel(true);
+            throw e;
         }
-
-        List<Object[]> requestsCountsList = requestRepository.findConfirmedRequestCountsByEventIds(eventIds);
-
-        return requestsCountsList.stream()
-                .collect(Collectors.toMap(
-                        arr -> ((Number) arr[0]).longValue(),
-                        arr -> ((Number) arr[1]).intValue()
-                ));
+        Map<Long, Long> viewCounts = joinViews(views);
+        return events.stream()
+                .map(event -> {
+                    Map<RequestStatus, Long> counts = requestCounts.getOrDefault(event.getId(), Map.of());
+                    event.setViews(viewCounts.getOrDefault(event.getId(), 0L));
+                    EventShortDtoOut dto = EventMapper.toShortDto(event);
+                    dto.setPendingRequests(counts.getOrDefault(RequestStatus.PENDING, 0L));
+                    dto.setRejectedRequests(counts.getOrDefault(RequestStatus.REJECTED, 0L));
+                    return dto;
+                })
+                .toList();
     }
 
-    private void applyConfirmedRequestsCountsToEvents(Collection<Event> events, Map<Long, Integer> countsMap) {
-        events.forEach(event -> {
-            Integer count = countsMap.getOrDefault(event.getId(), 0);
-            event.setConfirmedRequests(count);
-        });
+    /**
+     * Число заявок каждого статуса по событиям страницы — один запрос с GROUP BY.
+     */
+    private Map<Long, Map<RequestStatus, Long>> getRequestCountsByStatus(List<Long> eventIds) {
+        Map<Long, Map<RequestStatus, Long>> counts = new HashMap<>();
+        for (RequestStatusCount row : requestRepository.countByEventIdsGroupedByStatus(eventIds)) {
+            counts.computeIfAbsent(row.getEventId(), id -> new EnumMap<>(RequestStatus.class))
+                    .put(row.getStatus(), row.getCount());
+        }
+        return counts;
     }
 
     private void validateEventDate(LocalDateTime eventDate, EventState state) {
@@ -382,6 +601,17 @@ public class EventServiceImpl implements EventService {
         event.setPublishedOn(LocalDateTime.now());
     }
 
+    /**
+     * Уже подтверждённые заявки не отзываются, поэтому лимит нельзя опустить ниже их числа.
+     */
+    private void changeParticipantLimit(Event event, Integer limit) {
+        if (limit > 0 && limit < event.getConfirmedRequests()) {
+            throw new ConditionNotMetException("Лимит участников " + limit
+                    + " меньше числа подтверждённых заявок: " + event.getConfirmedRequests());
+        }
+        event.setParticipantLimit(limit);
+    }
+
     private void rejectEvent(Event event) {
         if (event.getState() == EventState.PUBLISHED) {
             throw new ConditionNotMetException("Опубликованные события не могут быть отклонены");
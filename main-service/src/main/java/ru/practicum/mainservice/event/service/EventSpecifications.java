@@ -1,11 +1,18 @@
 package ru.practicum.mainservice.event.service;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.experimental.UtilityClass;
 import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.mainservice.event.model.Event;
 import ru.practicum.mainservice.event.model.EventState;
+import ru.practicum.mainservice.event.model.GeoGrid;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @UtilityClass
@@ -79,4 +86,67 @@ public class EventSpecifications {
         return rangeEnd == null ? null : (root, query, cb) ->
                 cb.lessThanOrEqualTo(root.get("eventDate"), rangeEnd);
     }
-}
\ No newline at end of file
+
+    public static Specification<Event> withinBox(GeoGrid.Box box) {
+        if (box == null)
+            return null;
+        List<long[]> cellRanges = GeoGrid.cellRanges(box);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!cellRanges.isEmpty()) {
+                Path<Long> cell = root.get("geoCell");
+                predicates.add(cb.or(cellRanges.stream()
+                        .map(range -> cb.between(cell, range[0], range[1]))
+                        .toArray(Predicate[]::new)));
+            }
+            Path<Double> lat = root.get("locationLat");
+            Path<Double> lon = root.get("locationLon");
+            predicates.add(cb.between(lat, box.minLat(), box.maxLat()));
+            predicates.add(box.crossesAntimeridian()
+                    ? cb.or(cb.ge(lon, box.minLon()), cb.le(lon, box.maxLon()))
+                    : cb.between(lon, box.minLon(), box.maxLon()));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Event> withinRadius(Double lat, Double lon, Double radiusKm) {
+        if (lat == null || lon == null || radiusKm == null)
+            return null;
+        double maxHaversine = Math.pow(Math.sin(radiusKm / (2 * GeoGrid.EARTH_RADIUS_KM)), 2);
+        Specification<Event> inCircle = (root, query, cb) ->
+                cb.le(haversine(root, cb, lat, lon), maxHaversine);
+        return withinBox(GeoGrid.Box.around(lat, lon, radiusKm)).and(inCircle);
+    }
+
+    /**
+     * Сортировка по расстоянию до точки. Предикат не добавляет, в запросах подсчёта ничего не делает.
+     */
+    public static Specification<Event> orderByDistance(Double lat, Double lon) {
+        if (lat == null || lon == null)
+            return null;
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(cb.asc(haversine(root, cb, lat, lon)), cb.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Гаверсинус центрального угла между событием и точкой. Растёт вместе с расстоянием,
+     * поэтому подходит и для сравнения с радиусом, и для сортировки без asin и sqrt.
+     */
+    private static Expression<Double> haversine(Root<Event> root, CriteriaBuilder cb, double lat, double lon) {
+        Path<Double> eventLat = root.get("locationLat");
+        Path<Double> eventLon = root.get("locationLon");
+        Expression<Double> sinHalfLat = cb.function("sin", Double.class,
+                cb.function("radians", Double.class, cb.quot(cb.diff(eventLat, lat), 2.0)));
+        Expression<Double> sinHalfLon = cb.function("sin", Double.class,
+                cb.function("radians", Double.class, cb.quot(cb.diff(eventLon, lon), 2.0)));
+        Expression<Double> cosEventLat = cb.function("cos", Double.class,
+                cb.function("radians", Double.class, eventLat));
+        return cb.sum(
+                cb.prod(sinHalfLat, sinHalfLat),
+                cb.prod(cb.prod(cosEventLat, Math.cos(Math.toRadians(lat))), cb.prod(sinHalfLon, sinHalfLon)));
+    }
+}
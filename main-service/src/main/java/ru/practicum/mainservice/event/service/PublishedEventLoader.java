@@ -0,0 +1,32 @@
+package ru.practicum.mainservice.event.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.mainservice.config.CacheConfig;
+import ru.practicum.mainservice.event.dto.EventDtoOut;
+import ru.practicum.mainservice.event.mapper.EventMapper;
+import ru.practicum.mainservice.event.model.Event;
+import ru.practicum.mainservice.event.repository.EventRepository;
+import ru.practicum.mainservice.exception.NotFoundException;
+
+/**
+ * Загружает опубликованное событие для кэша {@link CacheConfig#PUBLISHED_EVENTS}.
+ * В кэше хранится DTO без счётчиков просмотров и подтверждённых заявок,
+ * их значения накладываются при каждом запросе.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PublishedEventLoader {
+
+    private final EventRepository eventRepository;
+
+    @Cacheable(cacheNames = CacheConfig.PUBLISHED_EVENTS, key = "#eventId")
+    public EventDtoOut load(Long eventId) {
+        Event event = eventRepository.findPublishedById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event", eventId));
+        return EventMapper.toDto(event);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.mainservice.outbox.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OutboxEventType {
+    REQUEST_STATUS_CHANGED("participation_request"),
+    EVENT_STATE_CHANGED("event");
+
+    private final String aggregateType;
+}
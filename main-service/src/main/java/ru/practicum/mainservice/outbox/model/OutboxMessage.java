@@ -0,0 +1,16 @@
+package ru.practicum.mainservice.outbox.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись outbox в том виде, в каком она передаётся потребителям. {@code payload} — JSON.
+ */
+public record OutboxMessage(
+        Long id,
+        String aggregateType,
+        Long aggregateId,
+        OutboxEventType eventType,
+        String payload,
+        LocalDateTime createdAt,
+        int attempts) {
+}
@@ -0,0 +1,98 @@
+package ru.practicum.mainservice.outbox.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.mainservice.outbox.model.OutboxEventType;
+import ru.practicum.mainservice.outbox.model.OutboxMessage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at, available_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String LOCK_BATCH_SQL = """
+            SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at, attempts
+            FROM outbox_events
+            WHERE parked_at IS NULL AND available_at <= ?
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM outbox_events WHERE id = ?";
+
+    // исчерпавшая попытки запись паркуется вместо нового переноса
+    private static final String RESCHEDULE_SQL = """
+            UPDATE outbox_events
+            SET attempts = attempts + 1, available_at = ?, last_error = ?,
+                parked_at = CASE WHEN attempts + 1 >= ? THEN ? END
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param payloads JSON по id агрегата
+     */
+    public void insert(OutboxEventType type, Map<Long, String> payloads, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_SQL, payloads.entrySet().stream()
+                .map(entry -> new Object[]{type.getAggregateType(), entry.getKey(), type.name(), entry.getValue(),
+                        timestamp, timestamp})
+                .toList());
+    }
+
+    /**
+     * Блокирует пачку готовых к доставке записей; строки, занятые другим relay, пропускаются.
+     */
+    public List<OutboxMessage> lockBatch(LocalDateTime now, int batchSize) {
+        return jdbcTemplate.query(LOCK_BATCH_SQL, (rs, rowNum) -> new OutboxMessage(
+                rs.getLong("id"),
+                rs.getString("aggregate_type"),
+                rs.getLong("aggregate_id"),
+                OutboxEventType.valueOf(rs.getString("event_type")),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getInt("attempts")), Timestamp.valueOf(now), batchSize);
+    }
+
+    public void delete(List<Long> ids) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids.stream()
+                .map(id -> new Object[]{id})
+                .toList());
+    }
+
+    public void reschedule(Map<Long, String> errors, LocalDateTime now, LocalDateTime availableAt, int maxAttempts) {
+        Timestamp parkedAt = Timestamp.valueOf(now);
+        Timestamp timestamp = Timestamp.valueOf(availableAt);
+        jdbcTemplate.batchUpdate(RESCHEDULE_SQL, errors.entrySet().stream()
+                .map(entry -> new Object[]{timestamp, entry.getValue(), maxAttempts, parkedAt, entry.getKey()})
+                .toList());
+    }
+
+    /**
+     * Самая старая ещё доставляемая запись; припаркованные не учитываются.
+     */
+    public Optional<LocalDateTime> findOldestCreatedAt() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM outbox_events WHERE parked_at IS NULL", Timestamp.class))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    public long countParked() {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE parked_at IS NOT NULL", Long.class);
+        return count == null ? 0 : count;
+    }
+}
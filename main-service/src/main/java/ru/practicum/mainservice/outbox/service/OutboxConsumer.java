@@ -0,0 +1,12 @@
+package ru.practicum.mainservice.outbox.service;
+
+import ru.practicum.mainservice.outbox.model.OutboxMessage;
+
+/**
+ * Потребитель записей outbox внутри приложения. Доставка at-least-once: при ошибке любого
+ * потребителя запись будет передана всем потребителям повторно, обработка должна быть идемпотентной.
+ */
+public interface OutboxConsumer {
+
+    void accept(OutboxMessage message);
+}
@@ -0,0 +1,66 @@
+package ru.practicum.mainservice.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.mainservice.event.model.EventState;
+import ru.practicum.mainservice.outbox.model.OutboxEventType;
+import ru.practicum.mainservice.outbox.repository.OutboxRepository;
+import ru.practicum.mainservice.participation.model.RequestStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Пишет записи outbox только внутри уже открытой транзакции изменения,
+ * чтобы запись и само изменение фиксировались или откатывались вместе.
+ * При выключенном relay ({@code ewm.outbox.relay.enabled=false}) записи не пишутся:
+ * читать и удалять их было бы некому, и таблица росла бы без ограничений.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxPublisher {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ewm.outbox.relay.enabled}")
+    private boolean enabled;
+
+    public void requestStatusChanged(Long eventId, Collection<Long> requestIds, RequestStatus status) {
+        if (!enabled || requestIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> payloads = new LinkedHashMap<>();
+        for (Long requestId : requestIds) {
+            payloads.put(requestId, toJson(Map.of("requestId", requestId, "eventId", eventId, "status", status)));
+        }
+        outboxRepository.insert(OutboxEventType.REQUEST_STATUS_CHANGED, payloads, LocalDateTime.now());
+    }
+
+    public void eventStateChanged(Collection<Long> eventIds, EventState state) {
+        if (!enabled || eventIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> payloads = new LinkedHashMap<>();
+        for (Long eventId : eventIds) {
+            payloads.put(eventId, toJson(Map.of("eventId", eventId, "state", state)));
+        }
+        outboxRepository.insert(OutboxEventType.EVENT_STATE_CHANGED, payloads, LocalDateTime.now());
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать запись outbox", e);
+        }
+    }
+}
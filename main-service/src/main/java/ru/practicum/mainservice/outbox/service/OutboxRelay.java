@@ -0,0 +1,129 @@
+package ru.practicum.mainservice.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.mainservice.outbox.model.OutboxMessage;
+import ru.practicum.mainservice.outbox.repository.OutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Периодически забирает пачку записей outbox ({@code FOR UPDATE SKIP LOCKED}, поэтому
+ * несколько экземпляров сервиса не мешают друг другу), передаёт их всем {@link OutboxConsumer}
+ * и удаляет доставленные в той же транзакции. Запись, на которой упал потребитель,
+ * откладывается на {@code retry-delay-ms}, а после {@code max-attempts} попыток паркуется.
+ * Задержка доставки видна в метрике {@code ewm.outbox.lag}, число припаркованных — в {@code ewm.outbox.parked}.
+ * Без потребителей relay не запускается: иначе он удалял бы записи как доставленные.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ewm.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final AtomicLong lagMillis;
+    private final AtomicLong parked;
+
+    @Value("${ewm.outbox.relay.batch-size}")
+    private int batchSize;
+
+    @Value("${ewm.outbox.relay.retry-delay-ms}")
+    private long retryDelayMs;
+
+    @Value("${ewm.outbox.relay.max-lag-ms}")
+    private long maxLagMs;
+
+    @Value("${ewm.outbox.relay.max-attempts}")
+    private int maxAttempts;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ObjectProvider<OutboxConsumer> consumers,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.consumers = consumers.orderedStream().toList();
+        if (this.consumers.isEmpty()) {
+            throw new IllegalStateException(
+                    "ewm.outbox.relay.enabled=true, но не зарегистрировано ни одного OutboxConsumer");
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.deliveredCounter = Counter.builder("ewm.outbox.delivered")
+                .description("Записи outbox, доставленные потребителям")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("ewm.outbox.failed")
+                .description("Неудачные попытки доставки записей outbox")
+                .register(meterRegistry);
+        this.lagMillis = meterRegistry.gauge("ewm.outbox.lag", new AtomicLong());
+        this.parked = meterRegistry.gauge("ewm.outbox.parked", new AtomicLong());
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.outbox.relay.poll-ms}")
+    public void relay() {
+        Integer processed;
+        do {
+            processed = transactionTemplate.execute(status -> relayBatch());
+        } while (processed != null && processed == batchSize);
+        updateLag();
+    }
+
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> messages = outboxRepository.lockBatch(now, batchSize);
+        List<Long> deliveredIds = new ArrayList<>(messages.size());
+        Map<Long, String> errors = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            try {
+                consumers.forEach(consumer -> consumer.accept(message));
+                deliveredIds.add(message.id());
+            } catch (RuntimeException e) {
+                if (message.attempts() + 1 >= maxAttempts) {
+                    log.error("Запись outbox {} не доставлена за {} попыток и припаркована: {}",
+                            message.id(), maxAttempts, e.getMessage());
+                } else {
+                    log.warn("Не удалось доставить запись outbox {} (попытка {}): {}",
+                            message.id(), message.attempts() + 1, e.getMessage());
+                }
+                errors.put(message.id(), truncate(String.valueOf(e.getMessage())));
+            }
+        }
+        outboxRepository.delete(deliveredIds);
+        outboxRepository.reschedule(errors, now, now.plus(Duration.ofMillis(retryDelayMs)), maxAttempts);
+        deliveredCounter.increment(deliveredIds.size());
+        failedCounter.increment(errors.size());
+        return messages.size();
+    }
+
+    private void updateLag() {
+        long lag = outboxRepository.findOldestCreatedAt()
+                .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+                .orElse(0L);
+        lagMillis.set(lag);
+        parked.set(outboxRepository.countParked());
+        if (lag > maxLagMs) {
+            log.warn("Задержка доставки outbox {} мс превышает допустимую {} мс", lag, maxLagMs);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
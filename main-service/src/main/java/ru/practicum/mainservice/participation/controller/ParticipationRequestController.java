@@ -1,6 +1,12 @@
 package ru.practicum.mainservice.participation.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -11,38 +17,90 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.mainservice.common.ratelimit.RateLimited;
 import ru.practicum.mainservice.participation.dto.ParticipationRequestDto;
+import ru.practicum.mainservice.participation.dto.ParticipationRequestHistoryDto;
+import ru.practicum.mainservice.participation.dto.WaitlistPositionDto;
+import ru.practicum.mainservice.participation.model.RequestStatus;
+import ru.practicum.mainservice.participation.service.EventAdmissionGate;
 import ru.practicum.mainservice.participation.service.ParticipationRequestService;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequiredArgsConstructor
 @Validated
 public class ParticipationRequestController {
 
+    private static final String PARTICIPATION_RATE_LIMIT = "participation";
+    private static final String NEXT_FROM_HEADER = "X-Next-From";
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_HISTORY_PAGE_SIZE = 1000;
+
     private final ParticipationRequestService requestService;
+    private final Optional<EventAdmissionGate> admissionGate;
 
     @PostMapping("/users/{userId}/requests")
+    @RateLimited(PARTICIPATION_RATE_LIMIT)
     public ResponseEntity<ParticipationRequestDto> createRequest(
             @PathVariable Long userId,
-            @RequestParam Long eventId) {
+            @RequestParam Long eventId,
+            @RequestParam(defaultValue = "false") boolean waitlist) {
 
-        ParticipationRequestDto createdRequest = requestService.createRequest(userId, eventId);
+        ParticipationRequestDto createdRequest = admissionGate
+                .map(gate -> {
+                    // дешёвые проверки до гейта, чтобы отказ по лимиту не подменял их ошибки
+                    requestService.checkRequestAllowed(userId, eventId);
+                    return gate.admit(eventId, waitlist,
+                            () -> requestService.createRequest(userId, eventId, waitlist));
+                })
+                .orElseGet(() -> requestService.createRequest(userId, eventId, waitlist));
         return new ResponseEntity<>(createdRequest, HttpStatus.CREATED);
     }
 
+    /**
+     * Без {@code from} и {@code size} — все заявки пользователя по возрастанию id, как и раньше.
+     * С любым из них — страница от новых к старым; если есть следующая, её {@code from}
+     * передаётся в заголовке {@value #NEXT_FROM_HEADER}.
+     */
     @GetMapping("/users/{userId}/requests")
-    public ResponseEntity<List<ParticipationRequestDto>> getUserRequests(@PathVariable Long userId) {
-        List<ParticipationRequestDto> requests = requestService.getUserRequests(userId);
-        return ResponseEntity.ok(requests);
+    public ResponseEntity<List<ParticipationRequestHistoryDto>> getUserRequests(
+            @PathVariable Long userId,
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(defaultValue = "false") boolean upcoming,
+            @RequestParam(required = false) @Min(0) Integer from,
+            @RequestParam(required = false) @Min(1) @Max(MAX_HISTORY_PAGE_SIZE) Integer size) {
+        if (from == null && size == null) {
+            Pageable unpaged = Pageable.unpaged(Sort.by("id"));
+            return ResponseEntity.ok(requestService.getUserRequests(userId, status, upcoming, unpaged).getContent());
+        }
+        int offset = from == null ? 0 : from;
+        int pageSize = size == null ? DEFAULT_HISTORY_PAGE_SIZE : size;
+        Pageable pageable = PageRequest.of(offset / pageSize, pageSize,
+                Sort.by(Sort.Direction.DESC, "created", "id"));
+        Slice<ParticipationRequestHistoryDto> page = requestService.getUserRequests(userId, status, upcoming, pageable);
+        if (!page.hasNext()) {
+            return ResponseEntity.ok(page.getContent());
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_FROM_HEADER, String.valueOf(pageable.getOffset() + pageSize))
+                .body(page.getContent());
     }
 
     @PatchMapping("/users/{userId}/requests/{requestId}/cancel")
+    @RateLimited(PARTICIPATION_RATE_LIMIT)
     public ResponseEntity<ParticipationRequestDto> cancelRequest(
             @PathVariable Long userId,
             @PathVariable Long requestId) {
         ParticipationRequestDto canceledRequest = requestService.cancelRequest(userId, requestId);
         return ResponseEntity.ok(canceledRequest);
     }
+
+    @GetMapping("/users/{userId}/requests/{requestId}/position")
+    public WaitlistPositionDto getWaitlistPosition(
+            @PathVariable Long userId,
+            @PathVariable Long requestId) {
+        return requestService.getWaitlistPosition(userId, requestId);
+    }
 }
\ No newline at end of file
@@ -1,9 +1,16 @@
 package ru.practicum.mainservice.participation.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,12 +18,17 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.mainservice.participation.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.mainservice.participation.dto.EventRequestStatusUpdateResult;
 import ru.practicum.mainservice.participation.dto.ParticipationRequestDto;
+import ru.practicum.mainservice.participation.model.RequestExportFormat;
+import ru.practicum.mainservice.participation.model.RequestStatus;
 import ru.practicum.mainservice.participation.service.ParticipationRequestService;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
@@ -25,6 +37,10 @@ import java.util.List;
 @RequiredArgsConstructor
 @Validated
 public class PrivateEventRequestController {
+    private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 10000;
+
     private final ParticipationRequestService requestService;
 
     @PatchMapping
@@ -36,10 +52,48 @@ public class PrivateEventRequestController {
         return requestService.updateRequestStatuses(userId, eventId, request);
     }
 
+    /**
+     * Заявки события по возрастанию id. Без {@code afterId} и {@code size} возвращается полный список,
+     * как и раньше. С любым из них — страница (по умолчанию {@value #DEFAULT_PAGE_SIZE}); если есть
+     * следующая, её начало передаётся в заголовке {@value #NEXT_AFTER_ID_HEADER} для параметра {@code afterId}.
+     */
     @GetMapping
-    public List<ParticipationRequestDto> getRequests(@PathVariable @Min(1) Long userId,
-                                                     @PathVariable @Min(1) Long eventId) {
-        log.info("GET /users/{}/events/{}/requests", userId, eventId);
-        return requestService.getRequestsForEvent(eventId, userId);
+    public ResponseEntity<List<ParticipationRequestDto>> getRequests(
+            @PathVariable @Min(1) Long userId,
+            @PathVariable @Min(1) Long eventId,
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) @PositiveOrZero Long afterId,
+            @RequestParam(required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer size) {
+        log.info("GET /users/{}/events/{}/requests status={} afterId={} size={}", userId, eventId, status, afterId, size);
+        if (afterId == null && size == null) {
+            return ResponseEntity.ok(requestService.getRequestsForEvent(eventId, userId, status));
+        }
+        Slice<ParticipationRequestDto> page = requestService.getRequestsForEvent(eventId, userId, status, afterId,
+                size == null ? DEFAULT_PAGE_SIZE : size);
+        if (!page.hasNext()) {
+            return ResponseEntity.ok(page.getContent());
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_AFTER_ID_HEADER, String.valueOf(page.getContent().getLast().getId()))
+                .body(page.getContent());
+    }
+
+    /**
+     * Выгрузка всех заявок события (NDJSON или CSV) порциями, без загрузки списка в память.
+     */
+    @GetMapping("/export")
+    public void exportRequests(@PathVariable @Min(1) Long userId,
+                               @PathVariable @Min(1) Long eventId,
+                               @RequestParam(required = false) RequestStatus status,
+                               @RequestParam(defaultValue = "NDJSON") RequestExportFormat format,
+                               HttpServletResponse response) throws IOException {
+        log.info("GET /users/{}/events/{}/requests/export status={} format={}", userId, eventId, status, format);
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("event-" + eventId + "-requests." + format.name().toLowerCase())
+                .build()
+                .toString());
+        requestService.exportRequestsForEvent(eventId, userId, status, format, response.getOutputStream());
     }
 }
@@ -0,0 +1,26 @@
+package ru.practicum.mainservice.participation.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+import static ru.practicum.mainservice.constants.Constants.DATE_TIME_FORMAT;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ParticipationRequestHistoryDto {
+    private Long id;
+    private LocalDateTime created;
+    private Long event;
+    private Long requester;
+    private String status;
+    private String eventTitle;
+    @JsonFormat(pattern = DATE_TIME_FORMAT)
+    private LocalDateTime eventDate;
+}
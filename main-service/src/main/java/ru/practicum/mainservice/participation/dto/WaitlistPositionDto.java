@@ -0,0 +1,16 @@
+package ru.practicum.mainservice.participation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WaitlistPositionDto {
+    private Long requestId;
+    private Long event;
+    private Long position;
+}
@@ -2,7 +2,10 @@ package ru.practicum.mainservice.participation.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.mainservice.participation.dto.ParticipationRequestDto;
+import ru.practicum.mainservice.participation.dto.ParticipationRequestHistoryDto;
 import ru.practicum.mainservice.participation.model.ParticipationRequest;
+import ru.practicum.mainservice.participation.model.RequestHistoryView;
+import ru.practicum.mainservice.participation.model.RequestView;
 
 @UtilityClass
 public class ParticipationRequestMapper {
@@ -15,4 +18,26 @@ public class ParticipationRequestMapper {
                 .status(r.getStatus().name())
                 .build();
     }
+
+    public static ParticipationRequestHistoryDto toHistoryDto(RequestHistoryView view) {
+        return ParticipationRequestHistoryDto.builder()
+                .id(view.id())
+                .created(view.created())
+                .event(view.eventId())
+                .requester(view.requesterId())
+                .status(view.status().name())
+                .eventTitle(view.eventTitle())
+                .eventDate(view.eventDate())
+                .build();
+    }
+
+    public static ParticipationRequestDto toDto(RequestView view) {
+        return ParticipationRequestDto.builder()
+                .id(view.id())
+                .created(view.created())
+                .event(view.eventId())
+                .requester(view.requesterId())
+                .status(view.status().name())
+                .build();
+    }
 }
\ No newline at end of file
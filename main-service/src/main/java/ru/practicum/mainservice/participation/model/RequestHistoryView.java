@@ -0,0 +1,16 @@
+package ru.practicum.mainservice.participation.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Заявка пользователя вместе с названием и датой события, читается одним запросом с join.
+ */
+public record RequestHistoryView(
+        Long id,
+        LocalDateTime created,
+        Long eventId,
+        Long requesterId,
+        RequestStatus status,
+        String eventTitle,
+        LocalDateTime eventDate) {
+}
@@ -4,5 +4,6 @@ public enum RequestStatus {
     PENDING,
     CONFIRMED,
     REJECTED,
-    CANCELED
+    CANCELED,
+    WAITLISTED
 }
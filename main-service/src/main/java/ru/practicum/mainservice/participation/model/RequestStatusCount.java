@@ -0,0 +1,10 @@
+package ru.practicum.mainservice.participation.model;
+
+public interface RequestStatusCount {
+
+    Long getEventId();
+
+    RequestStatus getStatus();
+
+    Long getCount();
+}
@@ -0,0 +1,15 @@
+package ru.practicum.mainservice.participation.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция заявки для постраничного списка и выгрузки: только колонки {@code ParticipationRequestDto},
+ * без управляемых сущностей в persistence context.
+ */
+public record RequestView(
+        Long id,
+        LocalDateTime created,
+        Long eventId,
+        Long requesterId,
+        RequestStatus status) {
+}
@@ -0,0 +1,35 @@
+package ru.practicum.mainservice.participation.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Component;
+import ru.practicum.mainservice.participation.model.ParticipationRequest;
+
+/**
+ * Выдаёт id заявок из того же pooled-генератора, что и {@code persist}: обращение к
+ * {@code participation_requests_seq} резервирует блок из 50 значений, и они расходуются по одному.
+ * Нативная вставка без явного id брала бы DEFAULT {@code nextval} и сжигала блок на каждую заявку.
+ */
+@Component
+public class ParticipationRequestIdGenerator {
+
+    private final EntityManager entityManager;
+    private final BeforeExecutionGenerator generator;
+
+    public ParticipationRequestIdGenerator(EntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.entityManager = entityManager;
+        this.generator = (BeforeExecutionGenerator) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(ParticipationRequest.class)
+                .getGenerator();
+    }
+
+    public Long nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        return (Long) generator.generate(session, null, null, EventType.INSERT);
+    }
+}
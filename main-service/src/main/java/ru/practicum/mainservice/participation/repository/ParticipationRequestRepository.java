@@ -1,19 +1,153 @@
 package ru.practicum.mainservice.participation.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.mainservice.participation.model.ParticipationRequest;
+import ru.practicum.mainservice.participation.model.RequestHistoryView;
 import ru.practicum.mainservice.participation.model.RequestStatus;
+import ru.practicum.mainservice.participation.model.RequestStatusCount;
+import ru.practicum.mainservice.participation.model.RequestView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ParticipationRequestRepository extends JpaRepository<ParticipationRequest, Long> {
-    boolean existsByRequesterIdAndEventId(Long userId, Long eventId);
+    /**
+     * Создаёт заявку одним запросом. Пустой результат — заявка уже есть или пользователя не существует.
+     * id берётся из {@link ParticipationRequestIdGenerator}, а не из DEFAULT колонки.
+     */
+    @Query(value = """
+            INSERT INTO participation_requests (id, requester_id, event_id, created_at, status)
+            SELECT :id, :requesterId, :eventId, :created, :status
+            WHERE EXISTS (SELECT 1 FROM users WHERE id = :requesterId)
+            ON CONFLICT (requester_id, event_id) DO NOTHING
+            RETURNING id
+            """, nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("id") Long id,
+                                  @Param("requesterId") Long requesterId,
+                                  @Param("eventId") Long eventId,
+                                  @Param("created") LocalDateTime created,
+                                  @Param("status") String status);
 
-    List<ParticipationRequest> findAllByRequesterId(Long userId);
+    boolean existsByRequesterIdAndEventId(Long requesterId, Long eventId);
 
-    List<ParticipationRequest> findAllByEventId(Long eventId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pr FROM ParticipationRequest pr WHERE pr.id = :id")
+    Optional<ParticipationRequest> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE ParticipationRequest pr SET pr.status = :status WHERE pr.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") RequestStatus status);
+
+    @Query("""
+            SELECT new ru.practicum.mainservice.participation.model.RequestHistoryView(
+                pr.id, pr.created, e.id, pr.requester.id, pr.status, e.title, e.eventDate)
+            FROM ParticipationRequest pr
+            JOIN pr.event e
+            WHERE pr.requester.id = :userId
+            AND (:status IS NULL OR pr.status = :status)
+            AND (:upcoming = false OR e.eventDate > :now)""")
+    Slice<RequestHistoryView> findHistory(@Param("userId") Long userId,
+                                          @Param("status") RequestStatus status,
+                                          @Param("upcoming") boolean upcoming,
+                                          @Param("now") LocalDateTime now,
+                                          Pageable pageable);
+
+    @Query("""
+            SELECT new ru.practicum.mainservice.participation.model.RequestView(
+                pr.id, pr.created, pr.event.id, pr.requester.id, pr.status)
+            FROM ParticipationRequest pr
+            WHERE pr.event.id = :eventId
+            AND (:status IS NULL OR pr.status = :status)
+            AND pr.id > :afterId
+            ORDER BY pr.id""")
+    List<RequestView> findPageByEventId(@Param("eventId") Long eventId,
+                                        @Param("status") RequestStatus status,
+                                        @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    @Query("""
+            SELECT new ru.practicum.mainservice.participation.model.RequestView(
+                pr.id, pr.created, pr.event.id, pr.requester.id, pr.status)
+            FROM ParticipationRequest pr
+            WHERE pr.id IN :ids
+            ORDER BY pr.id""")
+    List<RequestView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Подтверждает не более {@code limit} ожидающих заявок события из списка, в порядке id.
+     */
+    @Query(value = """
+            UPDATE participation_requests
+            SET status = 'CONFIRMED'
+            WHERE id IN (SELECT id
+                         FROM participation_requests
+                         WHERE id IN (:ids) AND event_id = :eventId AND status = 'PENDING'
+                         ORDER BY id
+                         LIMIT :limit
+                         FOR UPDATE)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> confirmPending(@Param("eventId") Long eventId,
+                              @Param("ids") Collection<Long> ids,
+                              @Param("limit") int limit);
+
+    @Query(value = """
+            UPDATE participation_requests
+            SET status = 'REJECTED'
+            WHERE id IN (:ids) AND event_id = :eventId AND status = 'PENDING'
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> rejectPending(@Param("eventId") Long eventId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Отклоняет все оставшиеся ожидающие заявки, если лимит участников события исчерпан.
+     */
+    @Query(value = """
+            UPDATE participation_requests
+            SET status = 'REJECTED'
+            WHERE event_id = :eventId AND status = 'PENDING'
+            AND EXISTS (SELECT 1
+                        FROM events
+                        WHERE id = :eventId AND participant_limit > 0 AND confirmed_requests >= participant_limit)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> rejectAllPendingIfFull(@Param("eventId") Long eventId);
+
+    /**
+     * Переводит первую заявку из листа ожидания события в статус {@code status}.
+     * Уже захваченные другой транзакцией строки пропускаются.
+     */
+    @Query(value = """
+            UPDATE participation_requests
+            SET status = :status
+            WHERE id = (SELECT id
+                        FROM participation_requests
+                        WHERE event_id = :eventId AND status = 'WAITLISTED'
+                        ORDER BY created_at, id
+                        LIMIT 1
+                        FOR UPDATE SKIP LOCKED)
+            RETURNING id
+            """, nativeQuery = true)
+    Optional<Long> promoteWaitlistHead(@Param("eventId") Long eventId, @Param("status") String status);
+
+    @Query("""
+            SELECT COUNT(pr)
+            FROM ParticipationRequest pr
+            WHERE pr.event.id = :eventId AND pr.status = 'WAITLISTED'
+            AND (pr.created < :created OR (pr.created = :created AND pr.id < :id))""")
+    long countWaitlistedAhead(@Param("eventId") Long eventId,
+                              @Param("created") LocalDateTime created,
+                              @Param("id") Long id);
 
     Integer countByEventIdAndStatus(Long eventId, RequestStatus status);
 
@@ -23,6 +157,13 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
             WHERE pr.event.id = :eventId AND pr.status = 'CONFIRMED'""")
     int countConfirmedRequestsForEvent(@Param("eventId") Long eventId);
 
+    @Query("""
+            SELECT pr.event.id AS eventId, pr.status AS status, COUNT(pr) AS count
+            FROM ParticipationRequest pr
+            WHERE pr.event.id IN :eventIds
+            GROUP BY pr.event.id, pr.status""")
+    List<RequestStatusCount> countByEventIdsGroupedByStatus(@Param("eventIds") Collection<Long> eventIds);
+
     @Query("""
             SELECT pr.event.id as eventId, COUNT(pr) as confirmedCount
             FROM ParticipationRequest pr
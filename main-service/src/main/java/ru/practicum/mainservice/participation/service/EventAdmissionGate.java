@@ -0,0 +1,219 @@
+package ru.practicum.mainservice.participation.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.mainservice.event.model.EventSeats;
+import ru.practicum.mainservice.event.repository.EventRepository;
+import ru.practicum.mainservice.exception.ConditionNotMetException;
+import ru.practicum.mainservice.participation.dto.ParticipationRequestDto;
+import ru.practicum.mainservice.participation.model.RequestStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Допуск заявок на участие до обращения к БД. Остаток мест каждого события держится в памяти,
+ * разбитый на полосы со счётчиками без блокировок; заявки сверх остатка отклоняются сразу.
+ * Источник истины остаётся в БД ({@code EventRepository.reserveSeats}), остаток периодически
+ * сверяется с ней, а события без обращений за период выбрасываются из памяти.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ewm.admission.enabled", havingValue = "true")
+public class EventAdmissionGate {
+
+    private final EventRepository eventRepository;
+    private final Counter rejectedCounter;
+    private final int stripes;
+    private final Map<Long, StripedPermits> permitsByEvent = new ConcurrentHashMap<>();
+
+    public EventAdmissionGate(EventRepository eventRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${ewm.admission.stripes}") int stripes) {
+        this.eventRepository = eventRepository;
+        this.stripes = stripes;
+        this.rejectedCounter = Counter.builder("ewm.admission.rejected")
+                .description("Заявки на участие, отклонённые без обращения к БД")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет регистрацию, если у события в памяти есть свободное место. Место возвращается,
+     * если регистрация упала или не заняла его (заявка на модерации или в листе ожидания).
+     * Заявка в лист ожидания допускается и без свободных мест.
+     * Проверки заявки, не связанные с местами, вызывающий выполняет до гейта.
+     */
+    public ParticipationRequestDto admit(Long eventId, boolean waitlist,
+                                         Supplier<ParticipationRequestDto> registration) {
+        StripedPermits permits = permitsFor(eventId);
+        if (permits == null || permits.isUnlimited()) {
+            return registration.get();
+        }
+        boolean acquired = permits.tryAcquire();
+        if (!acquired && !waitlist) {
+            rejectedCounter.increment();
+            throw new ConditionNotMetException("Лимит участников мероприятия достигнут.");
+        }
+        try {
+            ParticipationRequestDto request = registration.get();
+            if (acquired && !RequestStatus.CONFIRMED.name().equals(request.getStatus())) {
+                permits.release();
+            }
+            return request;
+        } catch (RuntimeException e) {
+            if (acquired) {
+                permits.release();
+            }
+            throw e;
+        } finally {
+            if (acquired) {
+                permits.completed();
+            }
+        }
+    }
+
+    /**
+     * Остаток события загружается вне ConcurrentHashMap: запрос к БД под блокировкой корзины
+     * задержал бы соседние события и закрепил бы поток-носитель виртуального потока.
+     * При гонке загрузок остаётся первый вставленный остаток.
+     */
+    private StripedPermits permitsFor(Long eventId) {
+        StripedPermits permits = permitsByEvent.get(eventId);
+        if (permits != null) {
+            return permits;
+        }
+        StripedPermits loaded = load(eventId);
+        if (loaded == null) {
+            return null;
+        }
+        StripedPermits existing = permitsByEvent.putIfAbsent(eventId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.admission.reconcile-ms}")
+    public void reconcile() {
+        permitsByEvent.values().removeIf(permits -> !permits.clearTouched());
+        if (permitsByEvent.isEmpty()) {
+            return;
+        }
+        List<Long> tracked = List.copyOf(permitsByEvent.keySet());
+        Map<Long, Integer> freeSeats = new HashMap<>();
+        for (EventSeats seats : eventRepository.findFreeSeats(tracked)) {
+            freeSeats.put(seats.getId(), seats.getFreeSeats());
+        }
+        for (Long eventId : tracked) {
+            Integer seats = freeSeats.get(eventId);
+            if (seats == null) {
+                permitsByEvent.remove(eventId);
+            } else {
+                StripedPermits permits = permitsByEvent.get(eventId);
+                if (permits != null) {
+                    permits.resetExcludingInFlight(seats);
+                }
+            }
+        }
+        log.debug("Сверка допуска заявок: отслеживается событий {}", permitsByEvent.size());
+    }
+
+    private StripedPermits load(Long eventId) {
+        // неизвестное или неопубликованное событие не кешируется: ошибку вернёт сервис заявок
+        return eventRepository.findFreeSeats(List.of(eventId)).stream()
+                .findFirst()
+                .map(seats -> new StripedPermits(stripes, seats.getFreeSeats()))
+                .orElse(null);
+    }
+
+    /**
+     * Остаток мест, разложенный по полосам. Полосы разнесены по разным линиям кеша,
+     * поток начинает со случайной полосы и переходит к следующей, когда текущая пуста.
+     */
+    static final class StripedPermits {
+
+        private static final int PADDING = 16;
+        private static final int UNLIMITED = -1;
+
+        private final int stripes;
+        private final AtomicIntegerArray cells;
+        // места, взятые регистрациями, которые ещё не завершились и поэтому не видны в БД
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean unlimited;
+        private volatile boolean touched = true;
+
+        StripedPermits(int stripes, int permits) {
+            this.stripes = stripes;
+            this.cells = new AtomicIntegerArray(stripes * PADDING);
+            reset(permits);
+        }
+
+        boolean isUnlimited() {
+            touched = true;
+            return unlimited;
+        }
+
+        boolean tryAcquire() {
+            inFlight.incrementAndGet();
+            if (acquireCell()) {
+                return true;
+            }
+            inFlight.decrementAndGet();
+            return false;
+        }
+
+        void completed() {
+            inFlight.decrementAndGet();
+        }
+
+        private boolean acquireCell() {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                int index = ((start + i) % stripes) * PADDING;
+                int current = cells.get(index);
+                while (current > 0) {
+                    if (cells.compareAndSet(index, current, current - 1)) {
+                        return true;
+                    }
+                    current = cells.get(index);
+                }
+            }
+            return false;
+        }
+
+        void release() {
+            cells.incrementAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING);
+        }
+
+        /**
+         * Сверка с БД: свободные места из БД минус места незавершённых регистраций. Регистрация,
+         * завершившаяся между чтением БД и сбросом, может дать лишнее место до следующей сверки —
+         * его отсечёт {@code reserveSeats}.
+         */
+        void resetExcludingInFlight(int permits) {
+            reset(permits == UNLIMITED ? UNLIMITED : Math.max(permits - inFlight.get(), 0));
+        }
+
+        void reset(int permits) {
+            unlimited = permits == UNLIMITED;
+            int available = Math.max(permits, 0);
+            for (int i = 0; i < stripes; i++) {
+                cells.set(i * PADDING, available / stripes + (i < available % stripes ? 1 : 0));
+            }
+        }
+
+        boolean clearTouched() {
+            boolean wasTouched = touched;
+            touched = false;
+            return wasTouched;
+        }
+    }
+}
@@ -1,20 +1,46 @@
 package ru.practicum.mainservice.participation.service;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.mainservice.participation.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.mainservice.participation.dto.EventRequestStatusUpdateResult;
 import ru.practicum.mainservice.participation.dto.ParticipationRequestDto;
+import ru.practicum.mainservice.participation.dto.ParticipationRequestHistoryDto;
+import ru.practicum.mainservice.participation.dto.WaitlistPositionDto;
+import ru.practicum.mainservice.participation.model.RequestExportFormat;
+import ru.practicum.mainservice.participation.model.RequestStatus;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ParticipationRequestService {
 
-    ParticipationRequestDto createRequest(Long userId, Long eventId);
+    ParticipationRequestDto createRequest(Long userId, Long eventId, boolean waitlist);
 
-    List<ParticipationRequestDto> getUserRequests(Long userId);
+    /**
+     * Проверки заявки до гейта одним запросом: событие существует, опубликовано и заявитель не инициатор.
+     * Существование пользователя и дубликат проверяет сама вставка заявки.
+     */
+    void checkRequestAllowed(Long userId, Long eventId);
 
-    List<ParticipationRequestDto> getRequestsForEvent(Long eventId, Long initiatorId);
+    /**
+     * Без {@code pageable} (unpaged) возвращаются все заявки пользователя по возрастанию id.
+     */
+    Slice<ParticipationRequestHistoryDto> getUserRequests(Long userId, RequestStatus status, boolean upcoming,
+                                                          Pageable pageable);
+
+    List<ParticipationRequestDto> getRequestsForEvent(Long eventId, Long initiatorId, RequestStatus status);
+
+    Slice<ParticipationRequestDto> getRequestsForEvent(Long eventId, Long initiatorId, RequestStatus status,
+                                                       Long afterId, int size);
+
+    void exportRequestsForEvent(Long eventId, Long initiatorId, RequestStatus status,
+                                RequestExportFormat format, OutputStream output) throws IOException;
 
     ParticipationRequestDto cancelRequest(Long userId, Long requestId);
 
+    WaitlistPositionDto getWaitlistPosition(Long userId, Long requestId);
+
     EventRequestStatusUpdateResult updateRequestStatuses(Long userId, Long eventId, EventRequestStatusUpdateRequest request);
 }
\ No newline at end of file
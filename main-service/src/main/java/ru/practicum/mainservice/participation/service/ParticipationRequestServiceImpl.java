@@ -1,33 +1,60 @@
 package ru.practicum.mainservice.participation.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.mainservice.event.model.Event;
+import ru.practicum.mainservice.event.model.EventAdmissionView;
 import ru.practicum.mainservice.event.model.EventState;
 import ru.practicum.mainservice.event.repository.EventRepository;
 import ru.practicum.mainservice.exception.ConditionNotMetException;
 import ru.practicum.mainservice.exception.ForbiddenException;
 import ru.practicum.mainservice.exception.NoAccessException;
 import ru.practicum.mainservice.exception.NotFoundException;
+import ru.practicum.mainservice.outbox.service.OutboxPublisher;
 import ru.practicum.mainservice.participation.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.mainservice.participation.dto.EventRequestStatusUpdateResult;
 import ru.practicum.mainservice.participation.dto.ParticipationRequestDto;
+import ru.practicum.mainservice.participation.dto.ParticipationRequestHistoryDto;
+import ru.practicum.mainservice.participation.dto.WaitlistPositionDto;
 import ru.practicum.mainservice.participation.mapper.ParticipationRequestMapper;
 import ru.practicum.mainservice.participation.model.ParticipationRequest;
+import ru.practicum.mainservice.participation.model.RequestExportFormat;
 import ru.practicum.mainservice.participation.model.RequestStatus;
+import ru.practicum.mainservice.participation.model.RequestView;
+import ru.practicum.mainservice.participation.repository.ParticipationRequestIdGenerator;
 import ru.practicum.mainservice.participation.repository.ParticipationRequestRepository;
 import ru.practicum.mainservice.user.model.User;
 import ru.practicum.mainservice.user.repository.UserRepository;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import static ru.practicum.mainservice.constants.Constants.DATE_TIME_FORMAT;
 import static ru.practicum.mainservice.participation.model.RequestStatus.CANCELED;
 import static ru.practicum.mainservice.participation.model.RequestStatus.CONFIRMED;
+import static ru.practicum.mainservice.participation.model.RequestStatus.WAITLISTED;
 
 @Slf4j
 @Service
@@ -35,80 +62,204 @@ import static ru.practicum.mainservice.participation.model.RequestStatus.CONFIRM
 @RequiredArgsConstructor
 public class ParticipationRequestServiceImpl implements ParticipationRequestService {
 
+    private static final String CSV_HEADER = "id,created,event,requester,status\n";
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    private static final DateTimeFormatter CSV_DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+
     private final UserRepository userRepo;
     private final EventRepository eventRepo;
     private final ParticipationRequestRepository requestRepo;
+    private final ParticipationRequestIdGenerator requestIdGenerator;
+    private final ObjectMapper objectMapper;
+    private final OutboxPublisher outboxPublisher;
 
     @Transactional
-    public ParticipationRequestDto createRequest(Long userId, Long eventId) {
+    public ParticipationRequestDto createRequest(Long userId, Long eventId, boolean waitlist) {
         log.info("Пользователь {} пытается создать запрос участия для события {}", userId, eventId);
 
-        User user = getUserById(userId);
         Event event = getEventById(eventId);
+        checkNotEventInitiator(userId, event.getInitiator().getId());
+        checkEventIsPublished(event.getState());
 
-        checkRequestNotExists(userId, eventId);
-        checkNotEventInitiator(userId, event);
-        checkEventIsPublished(event);
-        checkParticipantLimit(event, eventId);
-
-        RequestStatus status = determineRequestStatus(event);
+        RequestStatus status = isFull(event) ? waitlistOrThrow(waitlist) : determineRequestStatus(event);
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        // вставка и проверка на дубликат — один запрос: повтор клиента получает 409,
+        // не блокируя строку события и не занимая место
+        Long requestId = requestRepo
+                .insertIfAbsent(requestIdGenerator.nextId(), userId, eventId, created, status.name())
+                .orElseThrow(() -> requestNotCreated(userId));
+        if (status == CONFIRMED && eventRepo.reserveSeats(eventId, 1).orElse(0) == 0) {
+            // место заняла параллельная заявка: без листа ожидания вставка откатится вместе с транзакцией
+            status = waitlistOrThrow(waitlist);
+            requestRepo.updateStatus(requestId, status);
+        }
+        outboxPublisher.requestStatusChanged(eventId, List.of(requestId), status);
 
         ParticipationRequest request = new ParticipationRequest();
-        request.setRequester(user);
+        request.setId(requestId);
+        request.setRequester(userRepo.getReferenceById(userId));
         request.setEvent(event);
-        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        request.setCreated(created);
         request.setStatus(status);
         log.info("Создана заявка от пользователя {} на событие {} со статусом {}", userId, eventId, status);
-        return ParticipationRequestMapper.toDto(requestRepo.save(request));
+        return ParticipationRequestMapper.toDto(request);
     }
 
     @Override
-    public List<ParticipationRequestDto> getUserRequests(Long userId) {
+    public void checkRequestAllowed(Long userId, Long eventId) {
+        // одна проекция вместо загрузки события; пользователь и дубликат проверяются вставкой
+        EventAdmissionView event = eventRepo.findAdmissionViewById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event", eventId));
+        checkNotEventInitiator(userId, event.initiatorId());
+        checkEventIsPublished(event.state());
+    }
+
+    @Override
+    public Slice<ParticipationRequestHistoryDto> getUserRequests(Long userId, RequestStatus status, boolean upcoming,
+                                                                 Pageable pageable) {
         if (!userRepo.existsById(userId)) {
             throw new NotFoundException("User", userId);
         }
-        return requestRepo.findAllByRequesterId(userId).stream()
-                .map(ParticipationRequestMapper::toDto)
-                .toList();
+        return requestRepo.findHistory(userId, status, upcoming, LocalDateTime.now(), pageable)
+                .map(ParticipationRequestMapper::toHistoryDto);
     }
 
     @Transactional
     public EventRequestStatusUpdateResult updateRequestStatuses(Long userId, Long eventId,
                                                                 EventRequestStatusUpdateRequest request) {
         Event event = getEventWithCheck(userId, eventId);
-        List<ParticipationRequest> requests = getPendingRequestsOrThrow(request.getRequestIds());
+        Set<Long> requestIds = new LinkedHashSet<>(request.getRequestIds());
         return switch (request.getStatus()) {
-            case "CONFIRMED" -> confirmRequests(event, requests);
-            case "REJECTED" -> rejectRequests(requests);
+            case "CONFIRMED" -> confirmRequests(event, requestIds);
+            case "REJECTED" -> rejectRequests(event, requestIds);
             default -> throw new IllegalArgumentException("Неправильный статус: " + request.getStatus());
         };
     }
 
     @Override
-    public List<ParticipationRequestDto> getRequestsForEvent(Long eventId, Long initiatorId) {
-        log.debug("getRequestsForEvent: {} of user: {}", eventId, initiatorId);
-        getUserById(initiatorId);
-        Event event = getEventById(eventId);
-        if (!event.getInitiator().getId().equals(initiatorId)) {
-            throw new NoAccessException("Только инициатор может просматривать запросы на проведение мероприятия");
-        }
-        List<ParticipationRequest> allByEventId = requestRepo.findAllByEventId(eventId);
-        return allByEventId.stream()
+    public List<ParticipationRequestDto> getRequestsForEvent(Long eventId, Long initiatorId, RequestStatus status) {
+        log.debug("getRequestsForEvent: {} of user: {}, status: {}", eventId, initiatorId, status);
+        checkInitiatorAccess(eventId, initiatorId);
+        return requestRepo.findPageByEventId(eventId, status, 0L, Limit.unlimited()).stream()
                 .map(ParticipationRequestMapper::toDto)
                 .toList();
     }
 
+    @Override
+    public Slice<ParticipationRequestDto> getRequestsForEvent(Long eventId, Long initiatorId, RequestStatus status,
+                                                              Long afterId, int size) {
+        log.debug("getRequestsForEvent: {} of user: {}, status: {}, afterId: {}", eventId, initiatorId, status, afterId);
+        checkInitiatorAccess(eventId, initiatorId);
+        List<ParticipationRequestDto> content = requestRepo
+                .findPageByEventId(eventId, status, afterId == null ? 0L : afterId, Limit.of(size + 1)).stream()
+                .map(ParticipationRequestMapper::toDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content.remove(size);
+        }
+        return new SliceImpl<>(content, Pageable.ofSize(size), hasNext);
+    }
+
+    /**
+     * Выгрузка идёт пачками по {@value #EXPORT_BATCH_SIZE} заявок по id. Транзакции на всю выгрузку нет:
+     * каждая пачка читается своим коротким запросом, и соединение с БД не удерживается,
+     * пока клиент скачивает ответ.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportRequestsForEvent(Long eventId, Long initiatorId, RequestStatus status,
+                                       RequestExportFormat format, OutputStream output) throws IOException {
+        log.info("Выгрузка заявок события {} инициатором {} в формате {}", eventId, initiatorId, format);
+        checkInitiatorAccess(eventId, initiatorId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == RequestExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        long afterId = 0L;
+        List<RequestView> batch;
+        do {
+            batch = requestRepo.findPageByEventId(eventId, status, afterId, Limit.of(EXPORT_BATCH_SIZE));
+            for (RequestView row : batch) {
+                if (format == RequestExportFormat.CSV) {
+                    writer.write(toCsvLine(row));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(ParticipationRequestMapper.toDto(row)));
+                    writer.write('\n');
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.getLast().id();
+            }
+            writer.flush();
+        } while (batch.size() == EXPORT_BATCH_SIZE);
+    }
+
     @Override
     @Transactional
     public ParticipationRequestDto cancelRequest(Long userId, Long requestId) {
         log.info("Пользователь {} отменяет заявку с ID {}", userId, requestId);
-        ParticipationRequest request = requestRepo.findById(requestId)
+        // строка блокируется, чтобы параллельные отмены не освободили место дважды
+        ParticipationRequest request = requestRepo.findByIdForUpdate(requestId)
                 .orElseThrow(() -> new NotFoundException("ParticipationRequest", requestId));
         if (!request.getRequester().getId().equals(userId)) {
             throw new ForbiddenException("Отменить его может только автор заявки.");
         }
+        RequestStatus previousStatus = request.getStatus();
+        if (previousStatus == CANCELED) {
+            // повторная отмена ничего не меняет: место, лист ожидания и outbox уже обработаны
+            return ParticipationRequestMapper.toDto(request);
+        }
         request.setStatus(CANCELED);
-        return ParticipationRequestMapper.toDto(requestRepo.save(request));
+        requestRepo.save(request);
+        outboxPublisher.requestStatusChanged(request.getEvent().getId(), List.of(requestId), CANCELED);
+        if (previousStatus == CONFIRMED) {
+            eventRepo.releaseSeats(request.getEvent().getId(), 1);
+            promoteFromWaitlist(request.getEvent());
+        }
+        return ParticipationRequestMapper.toDto(request);
+    }
+
+    @Override
+    public WaitlistPositionDto getWaitlistPosition(Long userId, Long requestId) {
+        ParticipationRequest request = requestRepo.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("ParticipationRequest", requestId));
+        if (!request.getRequester().getId().equals(userId)) {
+            throw new ForbiddenException("Позицию в листе ожидания может узнать только автор заявки.");
+        }
+        if (request.getStatus() != WAITLISTED) {
+            throw new ConditionNotMetException("Заявка не находится в листе ожидания.");
+        }
+        Long eventId = request.getEvent().getId();
+        long ahead = requestRepo.countWaitlistedAhead(eventId, request.getCreated(), request.getId());
+        return WaitlistPositionDto.builder()
+                .requestId(requestId)
+                .event(eventId)
+                .position(ahead + 1)
+                .build();
+    }
+
+    /**
+     * Освободившееся место отдаётся первой заявке из листа ожидания в той же транзакции.
+     * При премодерации заявка становится ожидающей решения инициатора и место не занимает.
+     * Без модерации место сначала занимается: если его уже забрала другая заявка (или лимит
+     * уменьшен), лист ожидания не трогается.
+     */
+    private void promoteFromWaitlist(Event event) {
+        RequestStatus status = determineRequestStatus(event);
+        if (status == CONFIRMED && eventRepo.reserveSeats(event.getId(), 1).orElse(0) == 0) {
+            log.info("Свободных мест у события {} нет, лист ожидания не продвигается", event.getId());
+            return;
+        }
+        Optional<Long> promoted = requestRepo.promoteWaitlistHead(event.getId(), status.name());
+        if (promoted.isEmpty()) {
+            if (status == CONFIRMED) {
+                eventRepo.releaseSeats(event.getId(), 1);
+            }
+            return;
+        }
+        outboxPublisher.requestStatusChanged(event.getId(), List.of(promoted.get()), status);
+        log.info("Заявка {} переведена из листа ожидания события {} в статус {}", promoted.get(), event.getId(), status);
     }
 
     private User getUserById(Long userId) {
@@ -121,29 +272,47 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
                 .orElseThrow(() -> new NotFoundException("Event", eventId));
     }
 
-    private void checkRequestNotExists(Long userId, Long eventId) {
-        if (requestRepo.existsByRequesterIdAndEventId(userId, eventId)) {
-            throw new ConditionNotMetException("Заявка на участие уже отправлена.");
+    private void checkInitiatorAccess(Long eventId, Long initiatorId) {
+        getUserById(initiatorId);
+        Event event = getEventById(eventId);
+        if (!event.getInitiator().getId().equals(initiatorId)) {
+            throw new NoAccessException("Только инициатор может просматривать запросы на проведение мероприятия");
+        }
+    }
+
+    private static String toCsvLine(RequestView row) {
+        return row.id() + "," + CSV_DATE_FORMATTER.format(row.created()) + "," + row.eventId() + ","
+                + row.requesterId() + "," + row.status().name() + "\n";
+    }
+
+    private RuntimeException requestNotCreated(Long userId) {
+        if (!userRepo.existsById(userId)) {
+            return new NotFoundException("User", userId);
         }
+        return new ConditionNotMetException("Заявка на участие уже отправлена.");
     }
 
-    private void checkNotEventInitiator(Long userId, Event event) {
-        if (event.getInitiator().getId().equals(userId)) {
+    private void checkNotEventInitiator(Long userId, Long initiatorId) {
+        if (initiatorId.equals(userId)) {
             throw new ConditionNotMetException("Заявка на участие уже отправлена.");
         }
     }
 
-    private void checkEventIsPublished(Event event) {
-        if (!event.getState().equals(EventState.PUBLISHED)) {
+    private void checkEventIsPublished(EventState state) {
+        if (state != EventState.PUBLISHED) {
             throw new ConditionNotMetException("Невозможно принять участие в неопубликованном мероприятии.");
         }
     }
 
-    private void checkParticipantLimit(Event event, Long eventId) {
-        long confirmed = requestRepo.countByEventIdAndStatus(eventId, CONFIRMED);
-        if (event.getParticipantLimit() > 0 && confirmed >= event.getParticipantLimit()) {
+    private boolean isFull(Event event) {
+        return event.getParticipantLimit() > 0 && event.getConfirmedRequests() >= event.getParticipantLimit();
+    }
+
+    private RequestStatus waitlistOrThrow(boolean waitlist) {
+        if (!waitlist) {
             throw new ConditionNotMetException("Лимит участников мероприятия достигнут.");
         }
+        return WAITLISTED;
     }
 
     private RequestStatus determineRequestStatus(Event event) {
@@ -164,70 +333,53 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
         return event;
     }
 
-    private List<ParticipationRequest> getPendingRequestsOrThrow(List<Long> requestIds) {
-        List<ParticipationRequest> requests = requestRepo.findAllById(requestIds);
-        boolean hasNonPending = requests.stream()
-                .anyMatch(r -> r.getStatus() != RequestStatus.PENDING);
-        if (hasNonPending) {
-            throw new ConditionNotMetException("Запрос должен иметь статус ОЖИДАЮЩИЙ");
+    /**
+     * Места занимаются одним UPDATE события, заявки подтверждаются и отклоняются по одному UPDATE на статус.
+     * Если после этого лимит исчерпан, остальные ожидающие заявки события отклоняются одним запросом.
+     */
+    private EventRequestStatusUpdateResult confirmRequests(Event event, Set<Long> requestIds) {
+        checkIfLimitAvailableOrThrow(event);
+        int available = eventRepo.reserveSeats(event.getId(), requestIds.size()).orElse(0);
+        List<Long> confirmed = available > 0
+                ? requestRepo.confirmPending(event.getId(), requestIds, available)
+                : List.of();
+        List<Long> rejected = requestRepo.rejectPending(event.getId(), requestIds);
+        checkAllPending(requestIds, confirmed.size() + rejected.size());
+        List<Long> autoRejected = requestRepo.rejectAllPendingIfFull(event.getId());
+        if (!autoRejected.isEmpty()) {
+            log.info("Лимит события {} исчерпан, автоматически отклонено заявок: {}", event.getId(), autoRejected.size());
         }
-        return requests;
+        outboxPublisher.requestStatusChanged(event.getId(), confirmed, CONFIRMED);
+        outboxPublisher.requestStatusChanged(event.getId(), rejected, RequestStatus.REJECTED);
+        outboxPublisher.requestStatusChanged(event.getId(), autoRejected, RequestStatus.REJECTED);
+        return toUpdateResult(requestIds);
     }
 
-    private EventRequestStatusUpdateResult confirmRequests(Event event, List<ParticipationRequest> requests) {
-        checkIfLimitAvailableOrThrow(event);
-        int limit = event.getParticipantLimit();
-        long confirmedCount = requestRepo.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED);
-        int available = limit - (int) confirmedCount;
-        List<ParticipationRequest> confirmed = new ArrayList<>();
-        List<ParticipationRequest> rejected = new ArrayList<>();
-        for (ParticipationRequest request : requests) {
-            if (shouldAutoConfirm(event)) {
-                confirmRequest(request, confirmed);
-            } else if (available > 0) {
-                confirmRequest(request, confirmed);
-                available--;
-            } else {
-                rejectRequest(request, rejected);
-            }
+    private void checkAllPending(Set<Long> requestIds, int updated) {
+        // обновлены только ожидающие заявки этого события; расхождение — откат всей операции
+        if (updated != requestIds.size()) {
+            throw new ConditionNotMetException("Запрос должен иметь статус ОЖИДАЮЩИЙ");
         }
-        requestRepo.saveAll(requests);
-        return new EventRequestStatusUpdateResult(
-                confirmed.stream().map(ParticipationRequestMapper::toDto).toList(),
-                rejected.stream().map(ParticipationRequestMapper::toDto).toList()
-        );
+    }
+
+    private EventRequestStatusUpdateResult toUpdateResult(Set<Long> requestIds) {
+        Map<Boolean, List<ParticipationRequestDto>> byConfirmed = requestRepo.findViewsByIdIn(requestIds).stream()
+                .collect(Collectors.partitioningBy(view -> view.status() == CONFIRMED,
+                        Collectors.mapping(ParticipationRequestMapper::toDto, Collectors.toList())));
+        return new EventRequestStatusUpdateResult(byConfirmed.get(true), byConfirmed.get(false));
     }
 
     private void checkIfLimitAvailableOrThrow(Event event) {
         int limit = event.getParticipantLimit();
-        long confirmedCount = requestRepo.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED);
-        if (limit != 0 && Boolean.TRUE.equals(event.getRequestModeration()) && confirmedCount >= limit) {
+        if (limit != 0 && Boolean.TRUE.equals(event.getRequestModeration()) && event.getConfirmedRequests() >= limit) {
             throw new ConditionNotMetException("Лимит участников мероприятия достигнет");
         }
     }
 
-    private boolean shouldAutoConfirm(Event event) {
-        return event.getParticipantLimit() == 0 || Boolean.FALSE.equals(event.getRequestModeration());
-    }
-
-    private void confirmRequest(ParticipationRequest request, List<ParticipationRequest> confirmed) {
-        request.setStatus(RequestStatus.CONFIRMED);
-        confirmed.add(request);
-    }
-
-    private void rejectRequest(ParticipationRequest request, List<ParticipationRequest> rejected) {
-        request.setStatus(RequestStatus.REJECTED);
-        rejected.add(request);
-    }
-
-    private EventRequestStatusUpdateResult rejectRequests(List<ParticipationRequest> requests) {
-        for (ParticipationRequest r : requests) {
-            r.setStatus(RequestStatus.REJECTED);
-        }
-        requestRepo.saveAll(requests);
-        return new EventRequestStatusUpdateResult(
-                List.of(),
-                requests.stream().map(ParticipationRequestMapper::toDto).toList()
-        );
+    private EventRequestStatusUpdateResult rejectRequests(Event event, Set<Long> requestIds) {
+        List<Long> rejected = requestRepo.rejectPending(event.getId(), requestIds);
+        checkAllPending(requestIds, rejected.size());
+        outboxPublisher.requestStatusChanged(event.getId(), rejected, RequestStatus.REJECTED);
+        return toUpdateResult(requestIds);
     }
 }
\ No newline at end of file
@@ -0,0 +1,2 @@
+-- История заявок пользователя читается от новых к старым
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON participation_requests (requester_id, created_at DESC, id DESC);
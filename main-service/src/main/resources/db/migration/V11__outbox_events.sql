@@ -0,0 +1,16 @@
+-- Transactional outbox: изменения статусов пишутся в той же транзакции, что и сами изменения,
+-- а relay доставляет их потребителям (at-least-once) и удаляет доставленные строки.
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(50)                 NOT NULL,
+    aggregate_id   BIGINT                      NOT NULL,
+    event_type     VARCHAR(50)                 NOT NULL,
+    payload        TEXT                        NOT NULL,
+    created_at     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    available_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts       INTEGER                     NOT NULL DEFAULT 0,
+    last_error     VARCHAR(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_available ON outbox_events (available_at, id);
@@ -0,0 +1,6 @@
+-- Ленты комментариев события и пользователя идут по (created_at DESC, id DESC) без удалённых.
+-- Частичные индексы повторяют порядок выдачи, поэтому keyset-страница читается без сортировки.
+CREATE INDEX IF NOT EXISTS idx_comments_event_active_created_id
+    ON comments (event_id, created_at DESC, id DESC) WHERE status <> 'DELETED';
+CREATE INDEX IF NOT EXISTS idx_comments_user_active_created_id
+    ON comments (user_id, created_at DESC, id DESC) WHERE status <> 'DELETED';
@@ -0,0 +1,6 @@
+-- Верхняя граница проверялась бы при любом UPDATE уже переполненного события (правка названия,
+-- releaseSeats при отмене), поэтому в БД остаётся только неотрицательность счётчика.
+-- Лимит соблюдает reserveSeats, а уменьшение лимита ниже числа подтверждённых отклоняет сервис.
+ALTER TABLE events DROP CONSTRAINT IF EXISTS chk_events_confirmed_requests;
+ALTER TABLE events ADD CONSTRAINT chk_events_confirmed_requests CHECK (confirmed_requests >= 0) NOT VALID;
+ALTER TABLE events VALIDATE CONSTRAINT chk_events_confirmed_requests;
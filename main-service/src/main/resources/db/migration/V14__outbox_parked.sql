@@ -0,0 +1,7 @@
+-- Запись, не доставленная за ewm.outbox.relay.max-attempts попыток, паркуется: relay её больше
+-- не выбирает, и она не держит метрику задержки. Разбор таких записей — вручную по last_error.
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP WITHOUT TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_ready ON outbox_events (available_at, id) WHERE parked_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending_created ON outbox_events (created_at) WHERE parked_at IS NULL;
+DROP INDEX IF EXISTS idx_outbox_events_available;
@@ -10,7 +10,7 @@ CREATE TABLE IF NOT EXISTS categories
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT PRIMARY KEY,
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name  VARCHAR(255)        NOT NULL,
     email VARCHAR(255) UNIQUE NOT NULL
 );
@@ -87,7 +87,7 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT chk_comment_text CHECK (LENGTH(TRIM(text)) >= 1 AND LENGTH(text) <= 2000)
 );
 
-    CREATE INDEX IF NOT EXISTS idx_comments_event_id ON comments(event_id);
-    CREATE INDEX IF NOT EXISTS idx_comments_user_id ON comments(user_id);
-    CREATE INDEX IF NOT EXISTS idx_comments_created_at ON comments(created_at DESC);
-    CREATE INDEX IF NOT EXISTS idx_comments_event_created ON comments(event_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_event_id ON comments(event_id);
+CREATE INDEX IF NOT EXISTS idx_comments_user_id ON comments(user_id);
+CREATE INDEX IF NOT EXISTS idx_comments_created_at ON comments(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_event_created ON comments(event_id, created_at DESC);
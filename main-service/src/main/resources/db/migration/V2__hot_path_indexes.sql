@@ -0,0 +1,24 @@
+-- Публичный поиск: state = 'PUBLISHED' и диапазон event_date, сортировка по event_date
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events (state, event_date);
+
+-- Фильтр по категориям и проверка existsByCategoryId при удалении категории
+CREATE INDEX IF NOT EXISTS idx_events_category_id ON events (category_id);
+
+-- События инициатора (GET /users/{userId}/events)
+CREATE INDEX IF NOT EXISTS idx_events_initiator_id ON events (initiator_id, id);
+
+-- Подсчёт подтверждённых заявок и заявки на событие
+CREATE INDEX IF NOT EXISTS idx_requests_event_status ON participation_requests (event_id, status);
+
+-- Заявки пользователя и проверка повторной заявки
+CREATE INDEX IF NOT EXISTS idx_requests_requester_event ON participation_requests (requester_id, event_id);
+
+-- Удаление события каскадом из подборок
+CREATE INDEX IF NOT EXISTS idx_compilation_events_event_id ON compilation_events (event_id);
+
+-- Комментарии пользователя, сортировка по created_at
+CREATE INDEX IF NOT EXISTS idx_comments_user_created ON comments (user_id, created_at DESC);
+
+-- Покрываются составными индексами (event_id, created_at) и (user_id, created_at)
+DROP INDEX IF EXISTS idx_comments_event_id;
+DROP INDEX IF EXISTS idx_comments_user_id;
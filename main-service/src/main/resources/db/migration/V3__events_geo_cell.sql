@@ -0,0 +1,11 @@
+-- Номер ячейки сетки 0.1° × 0.1° (см. GeoGrid): row * 3600 + column
+ALTER TABLE events ADD COLUMN IF NOT EXISTS geo_cell BIGINT;
+
+UPDATE events
+SET geo_cell = LEAST(GREATEST(FLOOR((location_lat + 90) * 10), 0), 1799)::BIGINT * 3600
+             + LEAST(GREATEST(FLOOR((location_lon + 180) * 10), 0), 3599)::BIGINT;
+
+ALTER TABLE events ALTER COLUMN geo_cell SET NOT NULL;
+
+-- Поиск опубликованных событий в радиусе или прямоугольнике
+CREATE INDEX IF NOT EXISTS idx_events_state_geo_cell ON events (state, geo_cell);
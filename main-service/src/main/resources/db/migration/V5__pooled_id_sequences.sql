@@ -0,0 +1,24 @@
+-- Идентификаторы событий, заявок, комментариев и подборок выдаются из последовательностей
+-- с шагом 50 (pooled-оптимизатор Hibernate): IDENTITY отключал пакетную вставку.
+-- Значение v из последовательности закрепляет за вызывающим диапазон (v - 49, v],
+-- поэтому DEFAULT nextval для вставок мимо Hibernate тоже не пересекается с ним.
+
+ALTER TABLE events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS events_seq INCREMENT BY 50 OWNED BY events.id;
+SELECT setval('events_seq', GREATEST(COALESCE(MAX(id), 0), 1)) FROM events;
+ALTER TABLE events ALTER COLUMN id SET DEFAULT nextval('events_seq');
+
+ALTER TABLE participation_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS participation_requests_seq INCREMENT BY 50 OWNED BY participation_requests.id;
+SELECT setval('participation_requests_seq', GREATEST(COALESCE(MAX(id), 0), 1)) FROM participation_requests;
+ALTER TABLE participation_requests ALTER COLUMN id SET DEFAULT nextval('participation_requests_seq');
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50 OWNED BY comments.id;
+SELECT setval('comments_seq', GREATEST(COALESCE(MAX(id), 0), 1)) FROM comments;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+
+ALTER TABLE compilations ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS compilations_seq INCREMENT BY 50 OWNED BY compilations.id;
+SELECT setval('compilations_seq', GREATEST(COALESCE(MAX(id), 0), 1)) FROM compilations;
+ALTER TABLE compilations ALTER COLUMN id SET DEFAULT nextval('compilations_seq');
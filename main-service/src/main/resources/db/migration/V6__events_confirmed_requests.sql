@@ -0,0 +1,15 @@
+-- Счётчик подтверждённых заявок хранится в событии и меняется только атомарными UPDATE,
+-- поэтому лимит участников не превышается при одновременных заявках.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS confirmed_requests INTEGER NOT NULL DEFAULT 0;
+
+UPDATE events e
+SET confirmed_requests = c.cnt
+FROM (SELECT event_id, COUNT(*) AS cnt
+      FROM participation_requests
+      WHERE status = 'CONFIRMED'
+      GROUP BY event_id) c
+WHERE e.id = c.event_id;
+
+-- NOT VALID: уже переполненные в прошлом события не должны ломать миграцию
+ALTER TABLE events ADD CONSTRAINT chk_events_confirmed_requests
+    CHECK (confirmed_requests >= 0 AND (participant_limit = 0 OR confirmed_requests <= participant_limit)) NOT VALID;
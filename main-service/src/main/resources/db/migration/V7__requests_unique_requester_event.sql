@@ -0,0 +1,21 @@
+-- Одна заявка на пару (пользователь, событие). Дубликаты, проскочившие раньше, удаляются:
+-- остаётся подтверждённая заявка, при её отсутствии — самая ранняя.
+DELETE FROM participation_requests pr
+USING (SELECT id,
+              ROW_NUMBER() OVER (PARTITION BY requester_id, event_id
+                                 ORDER BY (status = 'CONFIRMED') DESC, id) AS rn
+       FROM participation_requests) d
+WHERE pr.id = d.id AND d.rn > 1;
+
+UPDATE events e
+SET confirmed_requests = c.cnt
+FROM (SELECT ev.id, COUNT(pr.id) AS cnt
+      FROM events ev
+      LEFT JOIN participation_requests pr ON pr.event_id = ev.id AND pr.status = 'CONFIRMED'
+      GROUP BY ev.id) c
+WHERE e.id = c.id AND e.confirmed_requests <> c.cnt;
+
+-- уникальный индекс ограничения заменяет обычный индекс из V2
+DROP INDEX IF EXISTS idx_requests_requester_event;
+ALTER TABLE participation_requests
+    ADD CONSTRAINT uq_requests_requester_event UNIQUE (requester_id, event_id);
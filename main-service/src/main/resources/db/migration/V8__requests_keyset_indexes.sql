@@ -0,0 +1,5 @@
+-- Постраничный список заявок события идёт по id (keyset): с фильтром по статусу и без него.
+-- Индекс (event_id, status, id) покрывает и прежний (event_id, status).
+CREATE INDEX IF NOT EXISTS idx_requests_event_status_id ON participation_requests (event_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_requests_event_id_id ON participation_requests (event_id, id);
+DROP INDEX IF EXISTS idx_requests_event_status;
@@ -0,0 +1,7 @@
+-- Лист ожидания: заявки на заполненное событие встают в очередь WAITLISTED (FIFO по created_at)
+ALTER TABLE participation_requests DROP CONSTRAINT IF EXISTS chk_status;
+ALTER TABLE participation_requests ADD CONSTRAINT chk_status
+    CHECK (status IN ('PENDING', 'CONFIRMED', 'REJECTED', 'CANCELED', 'WAITLISTED'));
+
+CREATE INDEX IF NOT EXISTS idx_requests_waitlist ON participation_requests (event_id, created_at, id)
+    WHERE status = 'WAITLISTED';
@@ -0,0 +1,126 @@
+package ru.practicum.mainservice.common.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final String NAME = "participation";
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final RateLimitProperties.Limit ONE_PER_SECOND_BURST_3 = new RateLimitProperties.Limit(1, 3);
+
+    private final AtomicLong clock = new AtomicLong(-5_000_000_000L);
+    private SimpleMeterRegistry registry;
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new RateLimiter(registry, clock::get);
+    }
+
+    @Test
+    void newBucketAllowsFullBurstThenRejects() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1")).isZero();
+        }
+
+        assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1")).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void bucketRefillsOneRequestPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1");
+        }
+
+        clock.addAndGet(INTERVAL);
+        assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1")).isEqualTo(INTERVAL);
+
+        clock.addAndGet(INTERVAL / 2);
+        assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1")).isEqualTo(INTERVAL / 2);
+    }
+
+    @Test
+    void requestChargesIpAndUserBucketsTogether() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1", "user", "42")).isZero();
+        }
+
+        // ведро пользователя пусто и с другого адреса, а ведро другого адреса не расходуется
+        assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.2", "user", "42")).isPositive();
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.2", "user", "7")).isZero();
+        }
+
+        assertThat(registry.get("ewm.rate-limit.rejected").tag("key", "user").counter().count()).isEqualTo(1);
+        assertThat(registry.get("ewm.rate-limit.allowed").tag("key", "ip").counter().count()).isEqualTo(6);
+    }
+
+    @Test
+    void rejectedRequestDoesNotChargeAnyBucket() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1");
+        }
+        limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1", "user", "42");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.2", "user", "42")).isZero();
+        }
+    }
+
+    @Test
+    void commitAdvancesAllBuckets() {
+        AtomicLong ip = new AtomicLong(10);
+        AtomicLong user = new AtomicLong(20);
+
+        boolean committed = RateLimiter.commit(new AtomicLong[]{ip, user}, new long[]{10, 20}, new long[]{11, 21});
+
+        assertThat(committed).isTrue();
+        assertThat(ip.get()).isEqualTo(11);
+        assertThat(user.get()).isEqualTo(21);
+    }
+
+    @Test
+    void commitRollsBackOnConflict() {
+        AtomicLong ip = new AtomicLong(10);
+        AtomicLong user = new AtomicLong(25);
+
+        boolean committed = RateLimiter.commit(new AtomicLong[]{ip, user}, new long[]{10, 20}, new long[]{11, 21});
+
+        assertThat(committed).isFalse();
+        assertThat(ip.get()).isEqualTo(10);
+        assertThat(user.get()).isEqualTo(25);
+    }
+
+    @Test
+    void commitFailsOnEvictedBucketAndKeepsItEvicted() {
+        AtomicLong ip = new AtomicLong(10);
+        AtomicLong user = new AtomicLong(RateLimiter.EVICTED);
+
+        boolean committed = RateLimiter.commit(new AtomicLong[]{ip, user}, new long[]{10, 20}, new long[]{11, 21});
+
+        assertThat(committed).isFalse();
+        assertThat(ip.get()).isEqualTo(10);
+        assertThat(user.get()).isEqualTo(RateLimiter.EVICTED);
+    }
+
+    @Test
+    void evictIdleRemovesOnlyRefilledBuckets() {
+        limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.1");
+        clock.addAndGet(INTERVAL / 2);
+        limiter.tryAcquire(NAME, ONE_PER_SECOND_BURST_3, "ip", "10.0.0.2");
+
+        clock.addAndGet(INTERVAL / 2 + 1);
+        limiter.evictIdle();
+
+        assertThat(registry.get("ewm.rate-limit.buckets").gauge().value()).isEqualTo(1);
+    }
+}
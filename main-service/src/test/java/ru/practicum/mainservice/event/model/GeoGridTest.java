@@ -0,0 +1,109 @@
+package ru.practicum.mainservice.event.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoGridTest {
+
+    private static final long COLUMNS = 3600;
+
+    @Test
+    void cellOfEncodesNegativeCoordinatesFromSouthWestCorner() {
+        assertThat(GeoGrid.cellOf(-90, -180)).isEqualTo(0);
+        assertThat(GeoGrid.cellOf(-0.05, -0.05)).isEqualTo(899 * COLUMNS + 1799);
+        assertThat(GeoGrid.cellOf(0.05, 0.05)).isEqualTo(900 * COLUMNS + 1800);
+    }
+
+    @Test
+    void cellOfClampsPolesAndAntimeridian() {
+        assertThat(GeoGrid.cellOf(90, 180)).isEqualTo(1800 * COLUMNS - 1);
+        assertThat(GeoGrid.cellOf(90, 179.95)).isEqualTo(GeoGrid.cellOf(90, 180));
+    }
+
+    @Test
+    void cellRangesGiveOneRangePerRow() {
+        List<long[]> ranges = GeoGrid.cellRanges(new GeoGrid.Box(0, 0.15, 10, 10.25));
+
+        assertThat(ranges).containsExactly(
+                new long[]{900 * COLUMNS + 1900, 900 * COLUMNS + 1902},
+                new long[]{901 * COLUMNS + 1900, 901 * COLUMNS + 1902});
+    }
+
+    @Test
+    void cellRangesSplitBoxCrossingAntimeridianAndMergeAdjacentRows() {
+        List<long[]> ranges = GeoGrid.cellRanges(new GeoGrid.Box(0, 0.15, 179.85, -179.85));
+
+        // восточный край строки 900 продолжается западным краем строки 901
+        assertThat(ranges).containsExactly(
+                new long[]{900 * COLUMNS, 900 * COLUMNS + 1},
+                new long[]{900 * COLUMNS + 3598, 901 * COLUMNS + 1},
+                new long[]{901 * COLUMNS + 3598, 901 * COLUMNS + 3599});
+    }
+
+    @Test
+    void cellRangesMergeFullLongitudeIntoSingleRange() {
+        List<long[]> ranges = GeoGrid.cellRanges(new GeoGrid.Box(-1, 1, -180, 180));
+
+        assertThat(ranges).containsExactly(new long[]{890 * COLUMNS, 910 * COLUMNS + COLUMNS - 1});
+    }
+
+    @Test
+    void cellRangesClampRowsAtPoles() {
+        assertThat(GeoGrid.cellRanges(new GeoGrid.Box(89.95, 90, 0, 0.05)))
+                .containsExactly(new long[]{1799 * COLUMNS + 1800, 1799 * COLUMNS + 1800});
+        assertThat(GeoGrid.cellRanges(new GeoGrid.Box(-90, -89.95, 0, 0.05)))
+                .containsExactly(new long[]{1800, 1800});
+    }
+
+    @Test
+    void cellRangesFallBackToEmptyWhenTooManyRanges() {
+        assertThat(GeoGrid.cellRanges(new GeoGrid.Box(0, 9.95, 0, 1))).hasSize(100);
+        assertThat(GeoGrid.cellRanges(new GeoGrid.Box(0, 10.05, 0, 1))).isEmpty();
+    }
+
+    @Test
+    void aroundBuildsBoxAroundPoint() {
+        GeoGrid.Box box = GeoGrid.Box.around(0, 0, 111.19);
+
+        assertThat(box.minLat()).isCloseTo(-1, within(0.01));
+        assertThat(box.maxLat()).isCloseTo(1, within(0.01));
+        assertThat(box.minLon()).isCloseTo(-1, within(0.01));
+        assertThat(box.maxLon()).isCloseTo(1, within(0.01));
+        assertThat(box.crossesAntimeridian()).isFalse();
+    }
+
+    @Test
+    void aroundWrapsLongitudeAcrossAntimeridian() {
+        GeoGrid.Box box = GeoGrid.Box.around(0, 179.9, 50);
+
+        assertThat(box.crossesAntimeridian()).isTrue();
+        assertThat(box.minLon()).isCloseTo(179.45, within(0.01));
+        assertThat(box.maxLon()).isCloseTo(-179.65, within(0.01));
+
+        List<long[]> ranges = GeoGrid.cellRanges(box);
+        assertThat(covers(ranges, GeoGrid.cellOf(0, 179.95))).isTrue();
+        assertThat(covers(ranges, GeoGrid.cellOf(0, -179.95))).isTrue();
+        assertThat(covers(ranges, GeoGrid.cellOf(0, 0))).isFalse();
+    }
+
+    @Test
+    void aroundTakesFullLongitudeWhenCircleReachesPole() {
+        GeoGrid.Box north = GeoGrid.Box.around(89.9, 10, 50);
+        GeoGrid.Box south = GeoGrid.Box.around(-89.9, -10, 50);
+
+        assertThat(north.maxLat()).isEqualTo(90.0);
+        assertThat(north.minLon()).isEqualTo(-180.0);
+        assertThat(north.maxLon()).isEqualTo(180.0);
+        assertThat(south.minLat()).isEqualTo(-90.0);
+        assertThat(south.minLon()).isEqualTo(-180.0);
+        assertThat(south.maxLon()).isEqualTo(180.0);
+    }
+
+    private static boolean covers(List<long[]> ranges, long cell) {
+        return ranges.stream().anyMatch(range -> range[0] <= cell && cell <= range[1]);
+    }
+}
@@ -2,7 +2,6 @@ package ru.practicum.statsclient.client;
 
 import org.springframework.http.MediaType;
 import org.springframework.web.client.RestClient;
-import org.springframework.web.util.UriComponentsBuilder;
 import ru.practicum.dto.EndpointHitDTO;
 import ru.practicum.dto.ViewStatsDTO;
 
@@ -12,6 +11,8 @@ import java.util.Arrays;
 import java.util.List;
 
 public abstract class StatsClient {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final RestClient restClient;
     private final String serverUrl;
 
@@ -56,19 +57,17 @@ public abstract class StatsClient {
 
     public List<ViewStatsDTO> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
         validateDates(start, end);
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl("/stats")
-                .queryParam("start", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(start))
-                .queryParam("end", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(end))
-                .queryParam("unique", unique);
-
-        if (uris != null && !uris.isEmpty()) {
-            uriBuilder.queryParam("uris", String.join(",", uris));
-        }
-
-        String url = uriBuilder.toUriString();
-
         ViewStatsDTO[] response = restClient.get()
-                .uri(url)
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/stats")
+                            .queryParam("start", FORMATTER.format(start))
+                            .queryParam("end", FORMATTER.format(end))
+                            .queryParam("unique", unique);
+                    if (uris != null && !uris.isEmpty()) {
+                        uriBuilder.queryParam("uris", String.join(",", uris));
+                    }
+                    return uriBuilder.build();
+                })
                 .retrieve()
                 .body(ViewStatsDTO[].class);
 
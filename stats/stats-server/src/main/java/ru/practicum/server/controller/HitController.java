@@ -32,6 +32,13 @@ public class HitController {
         hitService.createHit(endpointHitDTO);
     }
 
+    @PostMapping("/hit/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void createHits(@RequestBody List<EndpointHitDTO> endpointHitDTOs) {
+        log.info("Received {} hits", endpointHitDTOs.size());
+        hitService.createHits(endpointHitDTOs);
+    }
+
     @GetMapping("/stats")
     public List<ViewStatsDTO> getStats(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import lombok.AllArgsConstructor;
@@ -24,7 +25,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Hit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hits_seq")
+    @SequenceGenerator(name = "hits_seq", sequenceName = "hits_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "app", nullable = false, length = 255)
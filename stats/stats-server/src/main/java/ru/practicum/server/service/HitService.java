@@ -23,17 +23,20 @@ public class HitService {
 
     @Transactional
     public void createHit(EndpointHitDTO endpointHitDTO) {
-        Hit hit = Hit.builder()
-                .app(endpointHitDTO.getApp())
-                .uri(endpointHitDTO.getUri())
-                .ip(endpointHitDTO.getIp())
-                .timestamp(LocalDateTime.parse(endpointHitDTO.getTimestamp(), FORMATTER))
-                .build();
-
+        Hit hit = toHit(endpointHitDTO);
         hitRepository.save(hit);
         log.info("Hit saved: {}", hit);
     }
 
+    @Transactional
+    public void createHits(List<EndpointHitDTO> endpointHitDTOs) {
+        List<Hit> hits = endpointHitDTOs.stream()
+                .map(this::toHit)
+                .toList();
+        hitRepository.saveAll(hits);
+        log.info("Hits saved: {}", hits.size());
+    }
+
     @Transactional(readOnly = true)
     public List<ViewStatsDTO> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
         validateDateRange(start, end);
@@ -44,6 +47,15 @@ public class HitService {
         }
     }
 
+    private Hit toHit(EndpointHitDTO endpointHitDTO) {
+        return Hit.builder()
+                .app(endpointHitDTO.getApp())
+                .uri(endpointHitDTO.getUri())
+                .ip(endpointHitDTO.getIp())
+                .timestamp(LocalDateTime.parse(endpointHitDTO.getTimestamp(), FORMATTER))
+                .build();
+    }
+
     private void validateDateRange(LocalDateTime start, LocalDateTime end) {
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("Start date cannot be after end date");
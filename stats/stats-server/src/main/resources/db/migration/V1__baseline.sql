@@ -2,7 +2,7 @@ CREATE TABLE IF NOT EXISTS hits (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     app VARCHAR(255) NOT NULL,
     uri VARCHAR(512) NOT NULL,
-    ip VARCHAR(15) NOT NULL,
+    ip VARCHAR(45) NOT NULL,
     timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
@@ -11,4 +11,4 @@ CREATE INDEX IF NOT EXISTS idx_hits_timestamp ON hits(timestamp);
 CREATE INDEX IF NOT EXISTS idx_hits_uri ON hits(uri);
 CREATE INDEX IF NOT EXISTS idx_hits_app ON hits(app);
 CREATE INDEX IF NOT EXISTS idx_hits_ip ON hits(ip);
-CREATE INDEX IF NOT EXISTS idx_hits_timestamp_uri ON hits(timestamp, uri);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_hits_timestamp_uri ON hits(timestamp, uri);
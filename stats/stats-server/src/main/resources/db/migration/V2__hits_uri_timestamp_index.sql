@@ -0,0 +1,10 @@
+-- Статистика по списку uri за период: поиск по uri, диапазон по timestamp,
+-- app и ip берутся из индекса без обращения к таблице
+CREATE INDEX IF NOT EXISTS idx_hits_uri_timestamp ON hits (uri, timestamp) INCLUDE (app, ip);
+
+-- Ни один запрос не фильтрует по app или ip, а idx_hits_uri и idx_hits_timestamp_uri
+-- перекрываются idx_hits_uri_timestamp и idx_hits_timestamp
+DROP INDEX IF EXISTS idx_hits_app;
+DROP INDEX IF EXISTS idx_hits_ip;
+DROP INDEX IF EXISTS idx_hits_uri;
+DROP INDEX IF EXISTS idx_hits_timestamp_uri;
@@ -0,0 +1,6 @@
+-- Идентификаторы хитов выдаются из последовательности с шагом 50 (pooled-оптимизатор Hibernate),
+-- чтобы saveAll уходил пакетной вставкой, а не отдельным запросом на каждую строку.
+ALTER TABLE hits ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS hits_seq INCREMENT BY 50 OWNED BY hits.id;
+SELECT setval('hits_seq', GREATEST(COALESCE(MAX(id), 0), 1)) FROM hits;
+ALTER TABLE hits ALTER COLUMN id SET DEFAULT nextval('hits_seq');